@@ -56,21 +56,21 @@ public class EyeConstraint extends AxisPlaneConstraint {
       case PLANE:
         if (frame.is2D() && Util.nonZero(translationConstraintDirection().z()))
           break;
-        proj = eye().frame().inverseTransformOf(translationConstraintDirection());
+        proj = eye().frame().inverseTransformOf(translationConstraintDirection(), ScratchArena.vec());
         if (frame.referenceFrame() != null)
-          proj = frame.referenceFrame().transformOf(proj);
-        res = Vec.projectVectorOnPlane(translation, proj);
+          frame.referenceFrame().transformOf(proj, proj);
+        Vec.projectVectorOnPlane(translation, proj, res);
         break;
       case AXIS:
         if (frame.is2D() && Util.nonZero(translationConstraintDirection().z()))
           break;
-        proj = eye().frame().inverseTransformOf(translationConstraintDirection());
+        proj = eye().frame().inverseTransformOf(translationConstraintDirection(), ScratchArena.vec());
         if (frame.referenceFrame() != null)
-          proj = frame.referenceFrame().transformOf(proj);
-        res = Vec.projectVectorOnAxis(translation, proj);
+          frame.referenceFrame().transformOf(proj, proj);
+        Vec.projectVectorOnAxis(translation, proj, res);
         break;
       case FORBIDDEN:
-        res = new Vec(0.0f, 0.0f, 0.0f);
+        res.reset();
         break;
     }
     return res;
@@ -93,10 +93,11 @@ public class EyeConstraint extends AxisPlaneConstraint {
         if (frame.is2D())
           break;
         if (rotation instanceof Quat) {
-          Vec axis = frame.transformOf(eye().frame().inverseTransformOf(rotationConstraintDirection()));
-          Vec quat = new Vec(((Quat) rotation).quat[0], ((Quat) rotation).quat[1], ((Quat) rotation).quat[2]);
-          quat = Vec.projectVectorOnAxis(quat, axis);
-          res = new Quat(quat, 2.0f * (float) Math.acos(((Quat) rotation).quat[3]));
+          Vec axis = eye().frame().inverseTransformOf(rotationConstraintDirection(), ScratchArena.vec());
+          frame.transformOf(axis, axis);
+          Vec quat = ScratchArena.vec(((Quat) rotation).quat[0], ((Quat) rotation).quat[1], ((Quat) rotation).quat[2]);
+          Vec.projectVectorOnAxis(quat, axis, quat);
+          ((Quat) res).fromAxisAngle(quat, 2.0f * (float) Math.acos(((Quat) rotation).quat[3]));
         }
         break;
       case FORBIDDEN:
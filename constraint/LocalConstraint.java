@@ -37,19 +37,18 @@ public class LocalConstraint extends AxisPlaneConstraint {
       case PLANE:
         if (frame.is2D() && Util.nonZero(translationConstraintDirection().z()))
           break;
-        proj = frame.rotation().rotate(translationConstraintDirection());
-        // proj = frame.localInverseTransformOf(translationConstraintDirection());
-        res = Vec.projectVectorOnPlane(translation, proj);
+        // the local scaling (always positive) doesn't change the projection
+        proj = frame.localInverseTransformOf(translationConstraintDirection(), ScratchArena.vec());
+        Vec.projectVectorOnPlane(translation, proj, res);
         break;
       case AXIS:
         if (frame.is2D() && Util.nonZero(translationConstraintDirection().z()))
           break;
-        proj = frame.rotation().rotate(translationConstraintDirection());
-        // proj = frame.localInverseTransformOf(translationConstraintDirection());
-        res = Vec.projectVectorOnAxis(translation, proj);
+        proj = frame.localInverseTransformOf(translationConstraintDirection(), ScratchArena.vec());
+        Vec.projectVectorOnAxis(translation, proj, res);
         break;
       case FORBIDDEN:
-        res = new Vec(0.0f, 0.0f, 0.0f);
+        res.reset();
         break;
     }
     return res;
@@ -73,9 +72,9 @@ public class LocalConstraint extends AxisPlaneConstraint {
           break;
         if (rotation instanceof Quat) {
           Vec axis = rotationConstraintDirection();
-          Vec quat = new Vec(((Quat) rotation).quat[0], ((Quat) rotation).quat[1], ((Quat) rotation).quat[2]);
-          quat = Vec.projectVectorOnAxis(quat, axis);
-          res = new Quat(quat, 2.0f * (float) Math.acos(((Quat) rotation).quat[3]));
+          Vec quat = ScratchArena.vec(((Quat) rotation).quat[0], ((Quat) rotation).quat[1], ((Quat) rotation).quat[2]);
+          Vec.projectVectorOnAxis(quat, axis, quat);
+          ((Quat) res).fromAxisAngle(quat, 2.0f * (float) Math.acos(((Quat) rotation).quat[3]));
         }
         break;
       case FORBIDDEN:
@@ -36,22 +36,22 @@ public class WorldConstraint extends AxisPlaneConstraint {
         if (frame.is2D() && Util.nonZero(translationConstraintDirection().z()))
           break;
         if (frame.referenceFrame() != null) {
-          proj = frame.referenceFrame().transformOf(translationConstraintDirection());
-          res = Vec.projectVectorOnPlane(translation, proj);
+          proj = frame.referenceFrame().transformOf(translationConstraintDirection(), ScratchArena.vec());
+          Vec.projectVectorOnPlane(translation, proj, res);
         } else
-          res = Vec.projectVectorOnPlane(translation, translationConstraintDirection());
+          Vec.projectVectorOnPlane(translation, translationConstraintDirection(), res);
         break;
       case AXIS:
         if (frame.is2D() && Util.nonZero(translationConstraintDirection().z()))
           break;
         if (frame.referenceFrame() != null) {
-          proj = frame.referenceFrame().transformOf(translationConstraintDirection());
-          res = Vec.projectVectorOnAxis(translation, proj);
+          proj = frame.referenceFrame().transformOf(translationConstraintDirection(), ScratchArena.vec());
+          Vec.projectVectorOnAxis(translation, proj, res);
         } else
-          res = Vec.projectVectorOnAxis(translation, translationConstraintDirection());
+          Vec.projectVectorOnAxis(translation, translationConstraintDirection(), res);
         break;
       case FORBIDDEN:
-        res = new Vec(0.0f, 0.0f, 0.0f);
+        res.reset();
         break;
     }
     return res;
@@ -74,10 +74,10 @@ public class WorldConstraint extends AxisPlaneConstraint {
         if (frame.is2D())
           break;
         if (rotation instanceof Quat) {
-          Vec quat = new Vec(((Quat) rotation).quat[0], ((Quat) rotation).quat[1], ((Quat) rotation).quat[2]);
-          Vec axis = frame.transformOf(rotationConstraintDirection());
-          quat = Vec.projectVectorOnAxis(quat, axis);
-          res = new Quat(quat, 2.0f * (float) Math.acos(((Quat) rotation).quat[3]));
+          Vec quat = ScratchArena.vec(((Quat) rotation).quat[0], ((Quat) rotation).quat[1], ((Quat) rotation).quat[2]);
+          Vec axis = frame.transformOf(rotationConstraintDirection(), ScratchArena.vec());
+          Vec.projectVectorOnAxis(quat, axis, quat);
+          ((Quat) res).fromAxisAngle(quat, 2.0f * (float) Math.acos(((Quat) rotation).quat[3]));
         }
         break;
       case FORBIDDEN:
@@ -22,10 +22,14 @@ import remixlab.fpstiming.AnimatorObject;
 import remixlab.fpstiming.TimingHandler;
 import remixlab.fpstiming.TimingTask;
 
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * A 2D or 3D {@link Grabber} scene.
@@ -138,6 +142,26 @@ public abstract class AbstractScene extends AnimatorObject implements Grabber {
   }
 
   protected List<GenericFrame> seeds;
+  protected DrawList drawList;
+  protected DrawList[] workerLists;
+  protected RetainedDrawList retainedList;
+  protected DrawList exportList;
+  protected KeyFrameScheduler kfScheduler;
+  protected long treeVersion;
+
+  // tick interpolation, see setTickAlpha(float)
+  protected float tickAlpha = 1;
+  protected Mat tickMatrix;
+
+  // idle frames detection, see isDirty()
+  protected long drawnVersion = -1;
+  protected int drawnHints;
+  protected float drawnAlpha = 1;
+  protected boolean dirtyFlag = true;
+
+  // frames which back buffer should be published at preDraw
+  protected final Object transformLock = new Object();
+  protected List<GenericFrame> pendingFrames, publishedFrames;
 
   // public final static int PUP = 1 << 6;
   // public final static int ARP = 1 << 7;
@@ -170,6 +194,8 @@ public abstract class AbstractScene extends AnimatorObject implements Grabber {
    */
   public AbstractScene() {
     seeds = new ArrayList<GenericFrame>();
+    pendingFrames = new ArrayList<GenericFrame>();
+    publishedFrames = new ArrayList<GenericFrame>();
     setPlatform();
     setTimingHandler(new TimingHandler(this));
     deltaCount = frameCount;
@@ -212,6 +238,7 @@ public abstract class AbstractScene extends AnimatorObject implements Grabber {
       return false;
     if (isLeadingFrame(gFrame))
       return false;
+    treeModified();
     return leadingFrames().add(gFrame);
   }
 
@@ -228,9 +255,279 @@ public abstract class AbstractScene extends AnimatorObject implements Grabber {
         break;
       }
     }
+    if (result)
+      treeModified();
     return result;
   }
 
+  /**
+   * Returns a version number which changes each time the frame hierarchy structure
+   * (i.e., the {@link #leadingFrames()} or any frame children list) changes.
+   *
+   * @see remixlab.dandelion.core.GenericFrame#branchVersion()
+   */
+  public long treeVersion() {
+    return treeVersion;
+  }
+
+  /**
+   * Internal use. Updates the {@link #treeVersion()}.
+   */
+  protected void treeModified() {
+    treeVersion = GenericFrame.nextVersion();
+  }
+
+  /**
+   * Returns {@code true} if something that may change the scene rendering happened since
+   * the last {@link #postDraw()}, and {@code false} otherwise. Hosts rendering mostly static
+   * scenes may then skip the whole {@link #preDraw()}, drawing and {@link #postDraw()}
+   * sequence when it returns {@code false}, e.g., {@code if(!scene.isDirty()) return;}.
+   * <p>
+   * The scene is dirty when:
+   * <ol>
+   * <li>Any {@link remixlab.dandelion.core.GenericFrame} (including the eye frame) or the
+   * {@link #eye()} itself was modified (see
+   * {@link remixlab.dandelion.core.GenericFrame#version()} and
+   * {@link remixlab.dandelion.core.Eye#version()}), or the frame hierarchy changed.</li>
+   * <li>The {@link #visualHints()} or the {@link #tickAlpha()} changed.</li>
+   * <li>{@link #isAnimating()} returns {@code true}.</li>
+   * <li>{@link #setDirty()} was called.</li>
+   * <li>Some frame transformations, set from other threads (see
+   * {@link remixlab.dandelion.core.GenericFrame#setPendingTranslation(Vec)}), are waiting
+   * to be published by the next {@link #preDraw()}.</li>
+   * </ol>
+   * The test is cheap: frame and eye versions are all taken from the same global counter,
+   * so that no frame needs to be polled. Note that the counter is shared among all the
+   * scenes, thus a change in another scene also marks this one as dirty.
+   */
+  public boolean isDirty() {
+    return dirtyFlag || GenericFrame.versionCount != drawnVersion || visualHintMask != drawnHints
+        || tickAlpha != drawnAlpha || isAnimating() || hasPendingTransforms();
+  }
+
+  /**
+   * Returns {@code true} if some pending frame transformations are waiting to be published
+   * by the next {@link #preDraw()}.
+   */
+  protected boolean hasPendingTransforms() {
+    synchronized (transformLock) {
+      return !pendingFrames.isEmpty();
+    }
+  }
+
+  /**
+   * Marks the scene as dirty, so that {@link #isDirty()} returns {@code true} until the
+   * next {@link #postDraw()}. Call it when something the scene doesn't track (e.g., your
+   * own drawing parameters) changed.
+   */
+  public void setDirty() {
+    dirtyFlag = true;
+  }
+
+  /**
+   * Returns {@code true} if the scene will (or may) change on its own, i.e., when any of
+   * the following holds:
+   * <ol>
+   * <li>{@link remixlab.dandelion.core.Eye#anyInterpolationStarted()}.</li>
+   * <li>Any timing task is active, which includes the spinning (see
+   * {@link remixlab.dandelion.core.GenericFrame#isSpinning()}) and flying (see
+   * {@link remixlab.dandelion.core.GenericFrame#isFlying()}) frames and the running
+   * {@link remixlab.dandelion.core.KeyFrameInterpolator}s.</li>
+   * <li>Any registered animator (see {@link #registerAnimator(Animator)}), the scene
+   * included, {@code animationStarted()}.</li>
+   * <li>The {@link #zoomVisualHint()}, {@link #rotateVisualHint()} or
+   * {@link #pickingVisualHint()} are enabled, since they depend on the input device
+   * position.</li>
+   * </ol>
+   *
+   * @see #isDirty()
+   */
+  public boolean isAnimating() {
+    if ((visualHintMask & (ZOOM | ROTATE | PICKING)) != 0)
+      return true;
+    if (eye() != null && eye().anyInterpolationStarted())
+      return true;
+    for (TimingTask task : timingHandler().timerPool())
+      if (task.isActive())
+        return true;
+    for (Animator animator : timingHandler().animatorPool())
+      if (animator.animationStarted())
+        return true;
+    return animationStarted();
+  }
+
+  /**
+   * Returns the blending factor used to render the frames which tick interpolation is
+   * enabled. Default is 1, i.e., the current frame transformations are rendered.
+   *
+   * @see #setTickAlpha(float)
+   * @see remixlab.dandelion.core.GenericFrame#enableTickInterpolation()
+   */
+  public float tickAlpha() {
+    return tickAlpha;
+  }
+
+  /**
+   * Sets the {@link #tickAlpha()}, clamped to {@code [0..1]}. Call it once per rendered
+   * frame (before drawing) with the fraction of the simulation tick elapsed since the last
+   * one, i.e., {@code alpha = accumulator / tickPeriod}, so that the frames which tick
+   * interpolation is enabled are rendered blended between their previous and current tick
+   * transformations (see
+   * {@link remixlab.dandelion.core.GenericFrame#interpolatedMatrix(Mat, float)}).
+   */
+  public void setTickAlpha(float alpha) {
+    tickAlpha = Math.max(0, Math.min(1, alpha));
+  }
+
+  /**
+   * Saves the current transformation of all the reachable frames which tick interpolation
+   * is enabled (including the eye frames) as their previous tick one (see
+   * {@link remixlab.dandelion.core.GenericFrame#beginTick()}). Call it once at the
+   * beginning of each simulation tick, before updating the frames, so that a frame left
+   * untouched during a tick is rendered at its current transformation, however it was
+   * moved before. Unreachable frames (see {@link #isFrameReachable(GenericFrame)}) should
+   * call their own {@link remixlab.dandelion.core.GenericFrame#beginTick()}.
+   */
+  public void beginTick() {
+    for (int i = 0; i < seeds.size(); i++)
+      beginTick(seeds.get(i));
+    setDirty();
+  }
+
+  /**
+   * Internal use. Calls {@link remixlab.dandelion.core.GenericFrame#beginTick()} on
+   * {@code frame} and all its descendants.
+   */
+  protected void beginTick(GenericFrame frame) {
+    frame.beginTick();
+    List<GenericFrame> children = frame.children();
+    for (int i = 0; i < children.size(); i++)
+      beginTick(children.get(i));
+  }
+
+  /**
+   * Returns {@code true} if the {@link remixlab.dandelion.geom.Quat} and
+   * {@link remixlab.dandelion.geom.Rot} trigonometry is approximated and {@code false}
+   * (default) otherwise.
+   *
+   * @see #enableFastMath()
+   */
+  public boolean isFastMathEnabled() {
+    return FastMath.isEnabled();
+  }
+
+  /**
+   * Makes the {@link remixlab.dandelion.geom.Quat} and
+   * {@link remixlab.dandelion.geom.Rot} trigonometry (and slerps among close
+   * orientations) use single precision approximations. See
+   * {@link remixlab.dandelion.geom.FastMath} for the error bounds. Note that the mode is
+   * shared by all the scenes.
+   *
+   * @see #disableFastMath()
+   */
+  public void enableFastMath() {
+    FastMath.setEnabled(true);
+  }
+
+  /**
+   * Restores the default {@code java.lang.Math} trigonometry.
+   *
+   * @see #enableFastMath()
+   */
+  public void disableFastMath() {
+    FastMath.setEnabled(false);
+  }
+
+  /**
+   * Returns {@code true} if the library internals take their temporary vectors,
+   * quaternions and matrices from a {@link remixlab.dandelion.geom.ScratchArena} and
+   * {@code false} (default) otherwise.
+   *
+   * @see #enableScratchArena()
+   */
+  public boolean isScratchArenaEnabled() {
+    return ScratchArena.isEnabled();
+  }
+
+  /**
+   * Makes the library internals take their temporaries from per-thread
+   * {@link remixlab.dandelion.geom.ScratchArena}s, which are recycled at the end of each
+   * frame (see {@link #postDraw()}), so that steady-state interaction and animation
+   * produce (almost) no garbage. Note that the mode is shared by all the scenes.
+   *
+   * @see #disableScratchArena()
+   */
+  public void enableScratchArena() {
+    ScratchArena.setEnabled(true);
+  }
+
+  /**
+   * Makes the library internals allocate their temporaries.
+   *
+   * @see #enableScratchArena()
+   */
+  public void disableScratchArena() {
+    ScratchArena.setEnabled(false);
+  }
+
+  /**
+   * Returns the scene default {@link remixlab.dandelion.core.KeyFrameScheduler}, creating it
+   * if needed. Call
+   * {@link remixlab.dandelion.core.KeyFrameInterpolator#setScheduler(KeyFrameScheduler)}
+   * with it to have many interpolators advanced together.
+   */
+  public KeyFrameScheduler keyFrameScheduler() {
+    if (kfScheduler == null)
+      kfScheduler = new KeyFrameScheduler(this);
+    return kfScheduler;
+  }
+
+  /**
+   * Returns the lock guarding the frames back buffers.
+   * <p>
+   * Threads updating several frames through the
+   * {@link remixlab.dandelion.core.GenericFrame#setPendingTranslation(Vec)} family of
+   * methods may synchronize on it to have all of their updates published together, i.e.,
+   * within the same {@link #publishTransforms()}.
+   */
+  public Object transformLock() {
+    return transformLock;
+  }
+
+  /**
+   * Internal use. Schedules the {@code frame} back buffer to be published at the next
+   * {@link #publishTransforms()}. Should be called while holding the
+   * {@link #transformLock()}.
+   */
+  protected void schedulePublish(GenericFrame frame) {
+    if (frame.pendingScheduled)
+      return;
+    frame.pendingScheduled = true;
+    pendingFrames.add(frame);
+  }
+
+  /**
+   * Publishes the back buffer of all the frames updated from other threads (see
+   * {@link remixlab.dandelion.core.GenericFrame#setPendingTranslation(Vec)}) since the
+   * last call. The pending list is swapped with an empty one and all frames are updated
+   * within a single critical section, so that writers never block on the traversal and
+   * the traversal never sees a partially updated hierarchy.
+   * <p>
+   * Automatically called at the beginning of {@link #preDraw()}.
+   */
+  public void publishTransforms() {
+    synchronized (transformLock) {
+      if (pendingFrames.isEmpty())
+        return;
+      List<GenericFrame> list = pendingFrames;
+      pendingFrames = publishedFrames;
+      publishedFrames = list;
+      for (GenericFrame frame : publishedFrames)
+        frame.publishPendingState();
+    }
+    publishedFrames.clear();
+  }
+
   /**
    * Traverse the frame hierarchy, successively applying the local transformation defined
    * by each traversed frame, and calling
@@ -249,6 +546,195 @@ public abstract class AbstractScene extends AnimatorObject implements Grabber {
       visitFrame(frame);
   }
 
+  /**
+   * Depth sorted version of {@link #traverseTree()}.
+   * <p>
+   * Instead of visiting the frames in tree order, the hierarchy is first flattened into
+   * a {@link remixlab.dandelion.core.DrawList} of {@code (world matrix, frame, view depth)}
+   * entries which is then sorted front-to-back (when {@code frontToBack} is {@code true},
+   * useful to improve early depth rejection of opaque objects) or back-to-front
+   * (otherwise, needed to properly blend transparent objects). The
+   * {@link remixlab.dandelion.core.GenericFrame#visit()} callbacks are finally replayed in
+   * that order, each one with its world matrix applied to the modelview.
+   * <p>
+   * The draw list buffers are reused among frames (see {@link #drawList()}).
+   * <p>
+   * <b>Attention:</b> this method should be called after {@link #bindMatrices()} (i.e.,
+   * eye update) and before any other transformation of the modelview takes place.
+   *
+   * @see #traverseTree()
+   */
+  public void traverseTree(boolean frontToBack) {
+    if (drawList == null)
+      drawList = new DrawList();
+    drawList.clear();
+    for (GenericFrame frame : leadingFrames())
+      drawList.collect(frame, null);
+    drawList.sort(eye().viewMat, frontToBack);
+    replay(drawList);
+  }
+
+  /**
+   * Parallel (and culled) version of {@link #traverseTree()}.
+   * <p>
+   * The {@link #leadingFrames()} are split into {@code tasks} contiguous chunks which
+   * are submitted to the {@code executor}. Each task computes the world matrices of its
+   * subtrees straight from the {@link remixlab.dandelion.geom.Frame} data (i.e., not
+   * through the single threaded {@link #matrixHelper()} stack), tests the frames
+   * {@link remixlab.dandelion.core.GenericFrame#boundingRadius()} balls against a shared
+   * (read-only) {@link remixlab.dandelion.core.Eye#snapshot()} and appends the visible
+   * ones to its own {@link remixlab.dandelion.core.DrawList}. Once all tasks are done,
+   * the per-task lists are merged in chunk order, so that the result is deterministic and
+   * matches the tree order, and the calling (render) thread finally replays the
+   * {@link remixlab.dandelion.core.GenericFrame#visit()} callbacks.
+   * <p>
+   * Since workers only read the frame hierarchy, it should not be modified while this
+   * method executes (frames moved from other threads should use the
+   * {@link remixlab.dandelion.core.GenericFrame#setPendingTranslation(Vec)} family of
+   * methods). Using a few more tasks than threads helps balancing unevenly sized
+   * subtrees.
+   * <p>
+   * <b>Attention:</b> this method should be called after {@link #bindMatrices()} (i.e.,
+   * eye update) and before any other transformation of the modelview takes place.
+   *
+   * @see #traverseTree()
+   * @see #traverseTree(boolean)
+   */
+  public void traverseTree(ExecutorService executor, int tasks) {
+    final EyeSnapshot snapshot = eye().snapshot();
+    final List<GenericFrame> seedList = leadingFrames();
+    int n = seedList.size();
+    tasks = Math.max(1, Math.min(tasks, n));
+    if (workerLists == null || workerLists.length < tasks) {
+      DrawList[] lists = new DrawList[tasks];
+      for (int i = 0; i < tasks; i++)
+        lists[i] = (workerLists != null && i < workerLists.length) ? workerLists[i] : new DrawList();
+      workerLists = lists;
+    }
+    List<Future<?>> futures = new ArrayList<Future<?>>(tasks);
+    for (int t = 0; t < tasks; t++) {
+      final DrawList list = workerLists[t];
+      final int from = t * n / tasks;
+      final int to = (t + 1) * n / tasks;
+      futures.add(executor.submit(new Runnable() {
+        public void run() {
+          list.clear();
+          for (int i = from; i < to; i++)
+            list.collect(seedList.get(i), null, snapshot);
+          ScratchArena.reset();
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      try {
+        future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("Parallel frame traversal interrupted", e);
+      } catch (ExecutionException e) {
+        throw new RuntimeException("Parallel frame traversal failed", e.getCause());
+      }
+    }
+    if (drawList == null)
+      drawList = new DrawList();
+    drawList.clear();
+    for (int t = 0; t < tasks; t++) {
+      drawList.append(workerLists[t]);
+      workerLists[t].clear();
+    }
+    replay(drawList);
+  }
+
+  /**
+   * Retained version of {@link #traverseTree()}.
+   * <p>
+   * The world matrices of all the reachable frames are kept (in tree order) in a
+   * {@link remixlab.dandelion.core.RetainedDrawList}. On each call only the branches
+   * which {@link remixlab.dandelion.core.GenericFrame#branchVersion()} changed since the
+   * last pass are walked and only the frames which were actually modified get their world
+   * matrix recomputed; unchanged branches are skipped at once. The whole list is only
+   * re-recorded when the hierarchy structure changes (see {@link #treeVersion()}). The
+   * {@link remixlab.dandelion.core.GenericFrame#visit()} callbacks are then replayed from
+   * the list.
+   * <p>
+   * Since the list holds world (and not modelview) matrices it remains valid when the eye
+   * moves.
+   * <p>
+   * <b>Attention:</b> this method should be called after {@link #bindMatrices()} (i.e.,
+   * eye update) and before any other transformation of the modelview takes place.
+   *
+   * @see #traverseTree()
+   */
+  public void traverseTreeRetained() {
+    if (retainedList == null)
+      retainedList = new RetainedDrawList();
+    retainedList.update(this);
+    replay(retainedList);
+  }
+
+  /**
+   * Used by the sorted, parallel and retained traversal algorithms. Calls the
+   * {@link remixlab.dandelion.core.GenericFrame#visit()} of each {@code list} frame, in
+   * list order, having its world matrix applied to the modelview.
+   */
+  protected void replay(DrawList list) {
+    for (int i = 0; i < list.size(); i++) {
+      GenericFrame frame = list.frame(i);
+      if (!frame.isVisitEnabled())
+        continue;
+      pushModelView();
+      applyModelView(list.matrix(i));
+      frame.visitCallback();
+      popModelView();
+    }
+  }
+
+  /**
+   * Returns the draw list used by {@link #traverseTree(boolean)} and
+   * {@link #traverseTree(ExecutorService, int)}, which holds the result of the last
+   * sorted (or parallel) traversal. May be {@code null} if no sorted traversal has been
+   * performed yet.
+   */
+  public DrawList drawList() {
+    return drawList;
+  }
+
+  /**
+   * Writes the world matrices of the {@code frame} branch (i.e., {@code frame} and all its
+   * descendants, in tree order) into {@code buffer} and returns the number of floats
+   * written. See {@link remixlab.dandelion.core.DrawList#put(FloatBuffer, boolean)} for the
+   * {@code affine} layout.
+   * <p>
+   * Meant for instanced rendering: upload the buffer once and issue a single draw call
+   * instead of applying the transformation of each frame. Only the first call (or a call
+   * with more frames than before) allocates.
+   */
+  public int putWorldMatrices(GenericFrame frame, FloatBuffer buffer, boolean affine) {
+    if (exportList == null)
+      exportList = new DrawList();
+    exportList.clear();
+    exportList.collect(frame);
+    int written = exportList.put(buffer, affine);
+    exportList.clear();
+    return written;
+  }
+
+  /**
+   * Same as {@link #putWorldMatrices(GenericFrame, FloatBuffer, boolean)}, but only the
+   * world matrices of the given {@code frames} (e.g., a layer), in the list order, are
+   * written.
+   */
+  public int putWorldMatrices(List<GenericFrame> frames, FloatBuffer buffer, boolean affine) {
+    if (exportList == null)
+      exportList = new DrawList();
+    exportList.clear();
+    for (GenericFrame frame : frames)
+      exportList.add(frame);
+    int written = exportList.put(buffer, affine);
+    exportList.clear();
+    return written;
+  }
+
   /**
    * Used by the traverse frame tree algorithm.
    */
@@ -1354,6 +1840,7 @@ public abstract class AbstractScene extends AnimatorObject implements Grabber {
   /**
    * Called before your main drawing and performs the following:
    * <ol>
+   * <li>Calls {@link #publishTransforms()}</li>
    * <li>Handles the {@link #avatar()}</li>
    * <li>Calls {@link #bindMatrices()}</li>
    * <li>Calls {@link remixlab.dandelion.core.Eye#updateBoundaryEquations()} if
@@ -1365,12 +1852,15 @@ public abstract class AbstractScene extends AnimatorObject implements Grabber {
    * @see #postDraw()
    */
   public void preDraw() {
+    // 0. Back buffers
+    publishTransforms();
     // 1. Avatar
     if (avatar() != null && (!eye().anyInterpolationStarted()))
       eye().frame().setWorldMatrix(avatar().trackingEyeFrame());
     // 2. Eye
     bindMatrices();
-    if (areBoundaryEquationsEnabled() && (eye().lastUpdate() > lastEqUpdate || lastEqUpdate == 0)) {
+    // both only recompute when the eye version changed:
+    if (areBoundaryEquationsEnabled()) {
       eye().updateBoundaryEquations();
       lastEqUpdate = frameCount;
     }
@@ -1383,6 +1873,7 @@ public abstract class AbstractScene extends AnimatorObject implements Grabber {
   /**
    * Called after your main drawing and performs the following:
    * <ol>
+   * <li>Resets the {@link #isDirty()} state</li>
    * <li>Calls {@link remixlab.fpstiming.TimingHandler#handle()} and increments the the
    * {@link #frameCount()}</li>
    * <li>Increments the {@link #frameCount()}</li>
@@ -1392,6 +1883,11 @@ public abstract class AbstractScene extends AnimatorObject implements Grabber {
    * @see #preDraw()
    */
   public void postDraw() {
+    // 0. Idle frames detection: whatever changes from now on wasn't drawn
+    drawnVersion = GenericFrame.versionCount;
+    drawnHints = visualHintMask;
+    drawnAlpha = tickAlpha;
+    dirtyFlag = false;
     // 1. timers
     timingHandler().handle();
     if (frameCount < timingHandler().frameCount())
@@ -1400,6 +1896,8 @@ public abstract class AbstractScene extends AnimatorObject implements Grabber {
       frameCount = timingHandler().frameCount() + deltaCount;
     // 2. Agents
     inputHandler().handle();
+    // 3. Recycle this frame temporaries
+    ScratchArena.reset();
   }
 
   /**
@@ -1471,7 +1969,7 @@ public abstract class AbstractScene extends AnimatorObject implements Grabber {
 
     // alternative:
     // /*
-    KeyFrameInterpolator[] k = eye.keyFrameInterpolatorArray();
+    KeyFrameInterpolator[] k = eye.paths();
     for (int i = 0; i < k.length; i++)
       drawPath(k[i], 3, 5, radius());
     // */
@@ -2567,10 +3065,25 @@ public abstract class AbstractScene extends AnimatorObject implements Grabber {
    * <p>
    * <b>Attention:</b> When drawing a frame hierarchy as above, this method should be used
    * whenever possible.
+   * <p>
+   * If {@code frame} is a {@link remixlab.dandelion.core.GenericFrame} which tick
+   * interpolation is enabled, its transformation is blended according to the
+   * {@link #tickAlpha()}.
    *
    * @see #applyWorldTransformation(Frame)
    */
   public void applyTransformation(Frame frame) {
+    if (tickAlpha < 1 && frame instanceof GenericFrame && ((GenericFrame) frame).isTickInterpolationEnabled()) {
+      if (tickMatrix == null)
+        tickMatrix = new Mat();
+      applyModelView(((GenericFrame) frame).interpolatedMatrix(tickMatrix, tickAlpha));
+      return;
+    }
+    // composes the frame quaternion directly, skipping the axis-angle round trip
+    if (matrixHelper instanceof TRSStackHelper) {
+      ((TRSStackHelper) matrixHelper).applyTransformation(frame);
+      return;
+    }
     if (is2D()) {
       translate(frame.translation().x(), frame.translation().y());
       rotate(frame.rotation().angle());
@@ -2649,6 +3162,9 @@ public abstract class AbstractScene extends AnimatorObject implements Grabber {
    */
   public void setRightHanded() {
     rightHanded = true;
+    // handedness is taken into account by the eye projection
+    if (eye() != null)
+      eye().modified();
   }
 
   /**
@@ -2658,6 +3174,8 @@ public abstract class AbstractScene extends AnimatorObject implements Grabber {
    */
   public void setLeftHanded() {
     rightHanded = false;
+    if (eye() != null)
+      eye().modified();
   }
 
   /**
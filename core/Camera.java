@@ -623,18 +623,19 @@ public class Camera extends Eye implements Copyable {
         float hhfov = horizontalFieldOfView() / 2.0f;
         float chhfov = (float) Math.cos(hhfov);
         float shhfov = (float) Math.sin(hhfov);
-        normal[0] = Vec.multiply(viewDir, -shhfov);
-        normal[1] = Vec.add(normal[0], Vec.multiply(right, chhfov));
-        normal[0] = Vec.add(normal[0], Vec.multiply(right, -chhfov));
-        normal[2] = Vec.multiply(viewDir, -1);
-        normal[3] = viewDir;
+        Vec tmp = ScratchArena.vec();
+        Vec.multiply(viewDir, -shhfov, normal[0]);
+        Vec.add(normal[0], Vec.multiply(right, chhfov, tmp), normal[1]);
+        Vec.add(normal[0], Vec.multiply(right, -chhfov, tmp), normal[0]);
+        Vec.multiply(viewDir, -1, normal[2]);
+        normal[3].set(viewDir);
 
         float hfov = fieldOfView() / 2.0f;
         float chfov = (float) Math.cos(hfov);
         float shfov = (float) Math.sin(hfov);
-        normal[4] = Vec.multiply(viewDir, -shfov);
-        normal[5] = Vec.add(normal[4], Vec.multiply(up, -chfov));
-        normal[4] = Vec.add(normal[4], Vec.multiply(up, chfov));
+        Vec.multiply(viewDir, -shfov, normal[4]);
+        Vec.add(normal[4], Vec.multiply(up, -chfov, tmp), normal[5]);
+        Vec.add(normal[4], Vec.multiply(up, chfov, tmp), normal[4]);
 
         for (int i = 0; i < 2; ++i)
           dist[i] = Vec.dot(pos, normal[i]);
@@ -659,22 +660,26 @@ public class Camera extends Eye implements Copyable {
         break;
       }
       case ORTHOGRAPHIC:
-        normal[0] = Vec.multiply(right, -1);
-        normal[1] = right;
-        normal[4] = up;
-        normal[5] = Vec.multiply(up, -1);
+        Vec.multiply(right, -1, normal[0]);
+        normal[1].set(right);
+        normal[4].set(up);
+        Vec.multiply(up, -1, normal[5]);
 
         float[] wh = getBoundaryWidthHeight();
-        dist[0] = Vec.dot(Vec.subtract(pos, Vec.multiply(right, wh[0])), normal[0]);
-        dist[1] = Vec.dot(Vec.add(pos, Vec.multiply(right, wh[0])), normal[1]);
-        dist[4] = Vec.dot(Vec.add(pos, Vec.multiply(up, wh[1])), normal[4]);
-        dist[5] = Vec.dot(Vec.subtract(pos, Vec.multiply(up, wh[1])), normal[5]);
+        Vec tmp = ScratchArena.vec();
+        Vec offset = ScratchArena.vec();
+        Vec.multiply(right, wh[0], offset);
+        dist[0] = Vec.dot(Vec.subtract(pos, offset, tmp), normal[0]);
+        dist[1] = Vec.dot(Vec.add(pos, offset, tmp), normal[1]);
+        Vec.multiply(up, wh[1], offset);
+        dist[4] = Vec.dot(Vec.add(pos, offset, tmp), normal[4]);
+        dist[5] = Vec.dot(Vec.subtract(pos, offset, tmp), normal[5]);
         break;
     }
 
     // Front and far planes are identical for both camera types.
-    normal[2] = Vec.multiply(viewDir, -1);
-    normal[3] = viewDir;
+    Vec.multiply(viewDir, -1, normal[2]);
+    normal[3].set(viewDir);
     dist[2] = -posViewDir - zNear();
     dist[3] = posViewDir + zFar();
 
@@ -1181,13 +1186,10 @@ public class Camera extends Eye implements Copyable {
       stopInterpolations();
 
     interpolationKfi.deletePath();
-    interpolationKfi.addKeyFrame(frame().detach());
+    interpolationKfi.addKeyFrame(frame().position(), frame().orientation(), frame().magnitude());
 
-    GenericFrame frame = new GenericFrame(gScene,
-        Vec.add(Vec.multiply(frame().position(), 0.3f), Vec.multiply(target, 0.7f)), frame().orientation(),
-        frame().magnitude());
-    scene().pruneBranch(frame);
-    interpolationKfi.addKeyFrame(frame, 0.4f);
+    interpolationKfi.addKeyFrame(Vec.add(Vec.multiply(frame().position(), 0.3f), Vec.multiply(target, 0.7f)),
+        frame().orientation(), frame().magnitude(), 0.4f);
     // interpolationKfi.addKeyFrame(new InteractiveFrame(gScene,
     // Vec.add(Vec.multiply(frame().position(), 0.3f), Vec.multiply(target,
     // 0.7f)), frame().orientation(), frame().magnitude()).detach(), 0.4f);
@@ -1199,7 +1201,7 @@ public class Camera extends Eye implements Copyable {
     lookAt(target);
     setFrame(originalFrame);
 
-    interpolationKfi.addKeyFrame(tempFrame, 1.0f);
+    interpolationKfi.addKeyFrame(tempFrame.position(), tempFrame.orientation(), tempFrame.magnitude(), 1.0f);
     interpolationKfi.startInterpolation();
   }
 
@@ -0,0 +1,346 @@
+/**************************************************************************************
+ * dandelion_tree
+ * Copyright (c) 2014-2017 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.dandelion.core;
+
+import remixlab.dandelion.geom.Mat;
+
+import java.nio.FloatBuffer;
+
+/**
+ * A flat list of {@code (world matrix, frame, view depth)} entries which may be sorted
+ * front-to-back or back-to-front. Used by
+ * {@link remixlab.dandelion.core.AbstractScene#traverseTree(boolean)}.
+ * <p>
+ * Sorting is performed with a (stable) least-significant-digit radix sort on the float
+ * depth keys. All the buffers (including the world matrices) are kept and reused among
+ * frames, so that once the list reached its maximum size it doesn't allocate anything.
+ */
+public class DrawList {
+  protected GenericFrame[] frames;
+  protected Mat[] matrices;
+  protected float[] depths;
+  protected int size;
+
+  // radix sort buffers
+  protected int[] order, orderTmp, keys, keysTmp;
+  protected int[] counts = new int[256];
+  protected Mat tmp = new Mat();
+  // world matrices of the (possibly culled) ancestors, see collect(GenericFrame, Mat, EyeSnapshot)
+  protected Mat[] stack;
+  // reference frame world matrix, see referenceMatrix(GenericFrame)
+  protected Mat refA = new Mat(), refB = new Mat();
+
+  /**
+   * Same as {@code this(64)}.
+   */
+  public DrawList() {
+    this(64);
+  }
+
+  /**
+   * Creates an empty draw list with room for {@code capacity} entries.
+   */
+  public DrawList(int capacity) {
+    allocate(Math.max(capacity, 1));
+  }
+
+  protected void allocate(int capacity) {
+    GenericFrame[] f = new GenericFrame[capacity];
+    Mat[] m = new Mat[capacity];
+    float[] d = new float[capacity];
+    int[] o = new int[capacity];
+    if (frames != null) {
+      System.arraycopy(frames, 0, f, 0, size);
+      System.arraycopy(matrices, 0, m, 0, matrices.length);
+      System.arraycopy(depths, 0, d, 0, size);
+      System.arraycopy(order, 0, o, 0, size);
+    }
+    for (int i = matrices == null ? 0 : matrices.length; i < capacity; i++)
+      m[i] = new Mat();
+    frames = f;
+    matrices = m;
+    depths = d;
+    order = o;
+    orderTmp = new int[capacity];
+    keys = new int[capacity];
+    keysTmp = new int[capacity];
+  }
+
+  /**
+   * Removes all the entries (the buffers are kept).
+   */
+  public void clear() {
+    for (int i = 0; i < size; i++)
+      frames[i] = null;
+    size = 0;
+  }
+
+  /**
+   * Returns the number of entries.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the frame of the {@code i}-th entry (in sorted order, after {@link #sort(Mat, boolean)}).
+   */
+  public GenericFrame frame(int i) {
+    return frames[order[i]];
+  }
+
+  /**
+   * Returns the world matrix of the {@code i}-th entry (in sorted order, after
+   * {@link #sort(Mat, boolean)}). The returned matrix is owned by the list.
+   */
+  public Mat matrix(int i) {
+    return matrices[order[i]];
+  }
+
+  /**
+   * Returns the view depth of the {@code i}-th entry (in sorted order, after
+   * {@link #sort(Mat, boolean)}).
+   */
+  public float depth(int i) {
+    return depths[order[i]];
+  }
+
+  /**
+   * Adds {@code frame} and all its descendants to the list, computing their world
+   * matrices from {@code parent} (which should be the world matrix of the
+   * {@code frame} reference frame, or {@code null} if it's a leading frame).
+   */
+  public void collect(GenericFrame frame, Mat parent) {
+    if (size == frames.length)
+      allocate(2 * frames.length);
+    int index = size++;
+    frames[index] = frame;
+    order[index] = index;
+    Mat world = matrices[index];
+    if (parent == null)
+      frame.interpolatedMatrix(world);
+    else {
+      frame.interpolatedMatrix(tmp);
+      Mat.multiply(parent, tmp, world);
+    }
+    for (GenericFrame child : frame.children())
+      collect(child, world);
+  }
+
+  /**
+   * Same as {@code collect(frame, referenceMatrix(frame))}, i.e., adds the {@code frame}
+   * branch to the list, no matter if {@code frame} is a leading frame or not.
+   *
+   * @see #referenceMatrix(GenericFrame)
+   */
+  public void collect(GenericFrame frame) {
+    collect(frame, referenceMatrix(frame));
+  }
+
+  /**
+   * Appends {@code frame}, with its world matrix computed from its ancestors, to the
+   * list. Its descendants aren't added.
+   */
+  public void add(GenericFrame frame) {
+    Mat parent = referenceMatrix(frame);
+    if (parent == null)
+      frame.interpolatedMatrix(tmp);
+    else {
+      Mat local = parent == refA ? refB : refA;
+      frame.interpolatedMatrix(local);
+      Mat.multiply(parent, local, tmp);
+    }
+    add(frame, tmp);
+  }
+
+  /**
+   * Returns the world matrix of the {@code frame} reference frame, computed by composing
+   * the matrices of all its ancestors, or {@code null} if {@code frame} has no reference
+   * frame. The returned matrix is owned by the list and is overwritten by the next call.
+   */
+  protected Mat referenceMatrix(GenericFrame frame) {
+    GenericFrame ref = frame.referenceFrame();
+    if (ref == null)
+      return null;
+    Mat acc = refA, next = refB;
+    ref.interpolatedMatrix(acc);
+    for (GenericFrame ancestor = ref.referenceFrame(); ancestor != null; ancestor = ancestor.referenceFrame()) {
+      ancestor.interpolatedMatrix(tmp);
+      Mat.multiply(tmp, acc, next);
+      Mat t = acc;
+      acc = next;
+      next = t;
+    }
+    return acc;
+  }
+
+  /**
+   * Same as {@link #collect(GenericFrame, Mat)}, but only the frames which bounding ball
+   * (see {@link remixlab.dandelion.core.GenericFrame#boundingRadius()}) isn't invisible
+   * according to {@code snapshot} are added to the list. Since frames have no
+   * hierarchical bounds, the descendants of a culled frame are still visited.
+   * <p>
+   * Since {@code snapshot} is immutable and world matrices are computed from the
+   * {@link remixlab.dandelion.geom.Frame} data (and not through the scene matrix stack),
+   * several draw lists may collect disjoint subtrees concurrently.
+   *
+   * @see remixlab.dandelion.core.AbstractScene#traverseTree(java.util.concurrent.ExecutorService, int)
+   */
+  public void collect(GenericFrame frame, Mat parent, EyeSnapshot snapshot) {
+    collect(frame, parent, snapshot, 0);
+  }
+
+  protected void collect(GenericFrame frame, Mat parent, EyeSnapshot snapshot, int level) {
+    if (stack == null || level == stack.length) {
+      Mat[] s = new Mat[stack == null ? 16 : 2 * stack.length];
+      int i = 0;
+      if (stack != null)
+        for (; i < stack.length; i++)
+          s[i] = stack[i];
+      for (; i < s.length; i++)
+        s[i] = new Mat();
+      stack = s;
+    }
+    Mat world = stack[level];
+    if (parent == null)
+      frame.interpolatedMatrix(world);
+    else {
+      frame.interpolatedMatrix(tmp);
+      Mat.multiply(parent, tmp, world);
+    }
+    if (isVisible(frame, world, snapshot))
+      add(frame, world);
+    for (GenericFrame child : frame.children())
+      collect(child, world, snapshot, level + 1);
+  }
+
+  /**
+   * Returns {@code true} if the bounding ball of {@code frame}, placed according to its
+   * {@code world} matrix, isn't invisible with respect to {@code snapshot}. Frames with a
+   * negative {@link remixlab.dandelion.core.GenericFrame#boundingRadius()} are never
+   * culled.
+   */
+  protected boolean isVisible(GenericFrame frame, Mat world, EyeSnapshot snapshot) {
+    float radius = frame.boundingRadius();
+    if (radius < 0 || snapshot == null)
+      return true;
+    float[] w = world.mat;
+    float scl = (float) Math.sqrt(w[0] * w[0] + w[1] * w[1] + w[2] * w[2]);
+    return snapshot.isBallVisible(w[12], w[13], w[14], radius * scl);
+  }
+
+  /**
+   * Appends a copy of {@code frame} and {@code world} matrix to the list.
+   */
+  public void add(GenericFrame frame, Mat world) {
+    if (size == frames.length)
+      allocate(2 * frames.length);
+    int index = size++;
+    frames[index] = frame;
+    order[index] = index;
+    matrices[index].set(world);
+  }
+
+  /**
+   * Appends all the entries of {@code other} (in its current order) to this list.
+   */
+  public void append(DrawList other) {
+    for (int i = 0; i < other.size(); i++)
+      add(other.frame(i), other.matrix(i));
+  }
+
+  /**
+   * Writes the world matrices of all the entries (in their current order) into
+   * {@code buffer}, starting at its current position, which is then advanced. Returns the
+   * number of floats written. No object is allocated, so that the buffer (typically a
+   * direct one) may be used as a per-instance attribute buffer of an instanced draw call.
+   * <p>
+   * If {@code affine} is {@code false} each matrix takes 16 floats, in column-major order
+   * (the same as {@link remixlab.dandelion.geom.Mat#get(float[])}). If {@code affine} is
+   * {@code true} only the first 3 matrix rows are written, row by row, taking 12 floats
+   * (the last row of a world matrix is always {@code (0,0,0,1)}).
+   * <p>
+   * Nothing is written, and a warning is issued, if the buffer
+   * {@code remaining()} space is not enough.
+   */
+  public int put(FloatBuffer buffer, boolean affine) {
+    int stride = affine ? 12 : 16;
+    if (buffer.remaining() < stride * size) {
+      System.out.println("Warning: buffer too small (" + buffer.remaining() + " floats left, " + stride * size
+          + " needed). Nothing done");
+      return 0;
+    }
+    for (int i = 0; i < size; i++) {
+      float[] m = matrices[order[i]].mat;
+      if (affine) {
+        buffer.put(m[0]).put(m[4]).put(m[8]).put(m[12]);
+        buffer.put(m[1]).put(m[5]).put(m[9]).put(m[13]);
+        buffer.put(m[2]).put(m[6]).put(m[10]).put(m[14]);
+      } else
+        buffer.put(m, 0, 16);
+    }
+    return stride * size;
+  }
+
+  /**
+   * Computes the view depth of each entry (i.e., the distance from the origin of its
+   * world matrix to the eye, along the view direction) from the {@code view} matrix and
+   * sorts the list front-to-back if {@code frontToBack} is {@code true} and back-to-front
+   * otherwise. Entries having the same depth keep their tree order.
+   */
+  public void sort(Mat view, boolean frontToBack) {
+    float[] v = view.mat;
+    for (int i = 0; i < size; i++) {
+      float[] w = matrices[i].mat;
+      // eye looks along its negative z axis
+      float depth = -(v[2] * w[12] + v[6] * w[13] + v[10] * w[14] + v[14]);
+      depths[i] = depth;
+      int bits = Float.floatToIntBits(depth);
+      // map the float to an int which unsigned order matches the float order
+      bits ^= (bits >> 31) | 0x80000000;
+      keys[i] = frontToBack ? bits : ~bits;
+      order[i] = i;
+    }
+    radixSort();
+  }
+
+  /**
+   * Internal use. Sorts {@code order} according to the (unsigned) {@code keys}, in four
+   * 8-bit passes.
+   */
+  protected void radixSort() {
+    int[] srcKeys = keys, dstKeys = keysTmp, srcOrder = order, dstOrder = orderTmp;
+    for (int shift = 0; shift < 32; shift += 8) {
+      for (int i = 0; i < 256; i++)
+        counts[i] = 0;
+      for (int i = 0; i < size; i++)
+        counts[(srcKeys[i] >>> shift) & 0xFF]++;
+      int sum = 0;
+      for (int i = 0; i < 256; i++) {
+        int c = counts[i];
+        counts[i] = sum;
+        sum += c;
+      }
+      for (int i = 0; i < size; i++) {
+        int slot = counts[(srcKeys[i] >>> shift) & 0xFF]++;
+        dstKeys[slot] = srcKeys[i];
+        dstOrder[slot] = srcOrder[i];
+      }
+      int[] t = srcKeys;
+      srcKeys = dstKeys;
+      dstKeys = t;
+      t = srcOrder;
+      srcOrder = dstOrder;
+      dstOrder = t;
+    }
+    // after an even number of passes the result is back into keys and order
+  }
+}
@@ -177,6 +177,8 @@ public abstract class Eye implements Copyable {
 
   // P o i n t s o f V i e w s a n d K e y F r a m e s
   protected HashMap<Integer, KeyFrameInterpolator> kfi;
+  // kfi values, see paths()
+  protected KeyFrameInterpolator[] kfiArray;
   // protected Iterator<Integer> itrtr;
   protected KeyFrameInterpolator interpolationKfi;
   // protected GrabberFrame tempFrame;
@@ -188,12 +190,20 @@ public abstract class Eye implements Copyable {
   protected Vec normal[];
   protected float dist[];
 
+  // boundary equations packed as structure-of-arrays, see packBoundaryEquations()
+  protected float bndA[], bndB[], bndC[], bndD[];
+  protected long bndPackedUpdate = -2;
+
   /**
    * Which was the last frame the Eye changes.
    */
   public long lastNonFrameUpdate = 0;
   protected long lastFPCoeficientsUpdateIssued = -1;
 
+  // change tracking, see version()
+  protected long nonFrameVersion;
+  protected long viewVersion = -1, projectionVersion = -1;
+
   protected Vec anchorPnt;
 
   // L O C A L T I M E R
@@ -368,6 +378,7 @@ public abstract class Eye implements Copyable {
 
   protected void modified() {
     lastNonFrameUpdate = AbstractScene.frameCount;
+    nonFrameVersion = GenericFrame.nextVersion();
   }
 
   /**
@@ -389,6 +400,56 @@ public abstract class Eye implements Copyable {
     return lastNonFrameUpdate;
   }
 
+  /**
+   * Returns a counter which changes each time any eye parameter affecting its view,
+   * projection or boundary equations changes, i.e., the max between the
+   * {@link remixlab.dandelion.core.GenericFrame#version()} of the eye {@link #frame()} and
+   * that of the eye local parameters (type, field of view, z-clipping coefficients, screen
+   * size, scene radius and center, anchor, ...).
+   * <p>
+   * It is used to recompute the view and projection matrices (see {@link #updateView()}
+   * and {@link #updateProjection()}), the cached projection times view matrix (see
+   * {@link remixlab.dandelion.core.MatrixHelper#cacheProjectionView()}) and the boundary
+   * equations (see {@link #updateBoundaryEquations()}) only when needed.
+   *
+   * @see #lastUpdate()
+   */
+  public long version() {
+    return Math.max(frame().version(), nonFrameVersion);
+  }
+
+  /**
+   * Calls {@link #computeView()} only if the eye {@link #version()} changed since the
+   * view matrix was last computed. Returns {@code true} if the view matrix was actually
+   * recomputed and {@code false} otherwise.
+   *
+   * @see #updateProjection()
+   */
+  public boolean updateView() {
+    long v = version();
+    if (v == viewVersion)
+      return false;
+    computeView();
+    viewVersion = v;
+    return true;
+  }
+
+  /**
+   * Calls {@link #computeProjection()} only if the eye {@link #version()} changed since
+   * the projection matrix was last computed. Returns {@code true} if the projection matrix
+   * was actually recomputed and {@code false} otherwise.
+   *
+   * @see #updateView()
+   */
+  public boolean updateProjection() {
+    long v = version();
+    if (v == projectionVersion)
+      return false;
+    computeProjection();
+    projectionVersion = v;
+    return true;
+  }
+
   // 2. POSITION AND ORIENTATION
 
   /**
@@ -410,6 +471,7 @@ public abstract class Eye implements Copyable {
     if (g.theeye == null) {// only detached frames which call pruneBranch on g
       gFrame = g;
       frame().theeye = this;
+      modified();
       interpolationKfi.setFrame(frame());
       Iterator<KeyFrameInterpolator> itr = kfi.values().iterator();
       while (itr.hasNext())
@@ -449,6 +511,7 @@ public abstract class Eye implements Copyable {
       // //scene().inputHandler().removeGrabber(frame());
       // scene().pruneBranch(frame());// better than remove grabber
       gFrame = g;// frame() is new
+      modified();
       if (gScene.is3D())
         ((Camera) this).setFocusDistance(sceneRadius() / (float) Math.tan(((Camera) this).fieldOfView() / 2.0f));
       interpolationKfi.setFrame(frame());
@@ -673,6 +736,7 @@ public abstract class Eye implements Copyable {
       return;
     }
     scnRadius = radius;
+    modified();
     setFlySpeed(0.01f * sceneRadius());
     for (Grabber mg : gScene.motionAgent().grabbers()) {
       if (mg instanceof GenericFrame)
@@ -772,6 +836,7 @@ public abstract class Eye implements Copyable {
     anchorPnt = refP;
     if (gScene.is2D())
       anchorPnt.setZ(0);
+    modified();
   }
 
   /**
@@ -889,8 +954,9 @@ public abstract class Eye implements Copyable {
    * Fills {@code m} with the Eye projection matrix values and returns it. If {@code m} is
    * {@code null} a new Mat will be created.
    * <p>
-   * If {@code recompute} is {@code true} first calls {@link #computeProjection()} to
-   * define the Eye projection matrix. Otherwise it returns the projection matrix
+   * If {@code recompute} is {@code true} first calls {@link #updateProjection()} to
+   * (re)define the Eye projection matrix, which only calls {@link #computeProjection()}
+   * if the eye {@link #version()} changed. Otherwise it returns the projection matrix
    * previously computed, e.g., as with
    * {@link remixlab.dandelion.core.MatrixHelper#loadProjection()}.
    *
@@ -903,8 +969,7 @@ public abstract class Eye implements Copyable {
       m = new Mat();
 
     if (recompute)
-      // May not be needed, but easier and more robust like this.
-      computeProjection();
+      updateProjection();
     m.set(projectionMat);
 
     return m;
@@ -918,6 +983,7 @@ public abstract class Eye implements Copyable {
    */
   public void setProjection(Mat proj) {
     projectionMat.set(proj);
+    modified();
   }
 
   /**
@@ -942,6 +1008,7 @@ public abstract class Eye implements Copyable {
       projectionMat.setTransposed(source);
     else
       projectionMat.set(source);
+    modified();
   }
 
   /**
@@ -1125,8 +1192,10 @@ public abstract class Eye implements Copyable {
    * Fills {@code m} with the Eye View matrix values and returns it. If {@code m} is
    * {@code null} a new Mat will be created.
    * <p>
-   * If {@code recompute} is {@code true} first calls {@link #computeView()} to define the
-   * Eye view matrix. Otherwise it returns the view matrix previously computed, e.g., as
+   * If {@code recompute} is {@code true} first calls {@link #updateView()} to (re)define
+   * the Eye view matrix, which only calls {@link #computeView()} if the eye
+   * {@link #version()} changed. Otherwise it returns the view matrix previously computed,
+   * e.g., as
    * with {@link remixlab.dandelion.core.MatrixHelper#loadModelView()}.
    *
    * @see #getView()
@@ -1140,10 +1209,9 @@ public abstract class Eye implements Copyable {
     if (m == null)
       m = new Mat();
     if (recompute)
-      // May not be needed, but easier like this.
       // Prevents from retrieving matrix in stereo mode -> overwrites shifted
       // value.
-      computeView();
+      updateView();
     m.set(viewMat);
     return m;
   }
@@ -1458,6 +1526,29 @@ public abstract class Eye implements Copyable {
     return true;
   }
 
+  /**
+   * Returns an immutable {@link remixlab.dandelion.core.EyeSnapshot} holding the current
+   * projection times view matrix (together with its inverse), viewport and boundary
+   * equations.
+   * <p>
+   * Contrary to {@link #project(float, float, float, float[])},
+   * {@link #unproject(float, float, float, float[])}, {@link #ballVisibility(Vec, float)}
+   * and {@link #boxVisibility(Vec, Vec)}, which read the (mutable) eye state, the
+   * snapshot queries may be safely performed from several threads at the same time.
+   * <p>
+   * <b>Attention:</b> This method should be called from the rendering thread, after the
+   * eye matrices have been updated (e.g., right after
+   * {@link remixlab.dandelion.core.AbstractScene#preDraw()}). The boundary equations are
+   * reused when they are up to date (see {@link #updateBoundaryEquations()}) and
+   * computed otherwise.
+   */
+  public EyeSnapshot snapshot() {
+    float[][] coef = (areBoundaryEquationsEnabled() && lastFPCoeficientsUpdateIssued == version()) ?
+        fpCoefficients :
+        computeBoundaryEquations();
+    return new EyeSnapshot(this, Mat.multiply(projectionMat, viewMat), getViewport(), coef);
+  }
+
   // 7. KEYFRAMED PATHS
 
   /**
@@ -1480,6 +1571,18 @@ public abstract class Eye implements Copyable {
     return kfi.values().toArray(new KeyFrameInterpolator[0]);
   }
 
+  /**
+   * Internal use. Same as {@link #keyFrameInterpolatorArray()}, but the returned array is
+   * cached (and owned by the eye) until a path is set or deleted. Used by
+   * {@link remixlab.dandelion.core.AbstractScene#drawPaths()}.
+   */
+  protected KeyFrameInterpolator[] paths() {
+    // the map is public, hence it may have been modified directly
+    if (kfiArray == null || kfiArray.length != kfi.size())
+      kfiArray = keyFrameInterpolatorArray();
+    return kfiArray;
+  }
+
   /**
    * Returns the eye {@code paths} as a list.
    *
@@ -1513,9 +1616,11 @@ public abstract class Eye implements Copyable {
       if (keyFInterpolator.gScene != gScene) {
         keyFInterpolator.gScene = gScene;
         for (int i = 0; i < keyFInterpolator.numberOfKeyFrames(); ++i)
-          keyFInterpolator.keyFrame(i).gScene = gScene;
+          if (keyFInterpolator.keyFrames().get(i).handle() != null)
+            keyFInterpolator.keyFrames().get(i).handle().gScene = gScene;
       }
       kfi.put(key, keyFInterpolator);
+      kfiArray = null;
       System.out.println("Path " + key + " set");
     } else
       deletePath(key);
@@ -1543,12 +1648,11 @@ public abstract class Eye implements Copyable {
       info = false;
     }
 
-    GenericFrame keyFrame = frame().detach();
-    keyFrame.setPickingPrecision(GenericFrame.PickingPrecision.FIXED);
-    keyFrame.setGrabsInputThreshold(AbstractScene.platform() == Platform.PROCESSING_ANDROID ? 50 : 20);
+    // value keyFrame: an interactive handle is only needed while the paths are displayed
+    KeyFrameInterpolator k = kfi.get(key);
+    k.addKeyFrame(frame().position(), frame().orientation(), frame().magnitude());
     if (gScene.pathsVisualHint())
-      gScene.inputHandler().addGrabber(keyFrame);
-    kfi.get(key).addKeyFrame(keyFrame);
+      attachKeyFrame(k.keyFrame(k.numberOfKeyFrames() - 1));
 
     if (info)
       System.out.println("Path " + key + ", position " + kfi.get(key).numberOfKeyFrames() + " added");
@@ -1569,9 +1673,11 @@ public abstract class Eye implements Copyable {
     if (kfi.containsKey(key)) {
       KeyFrameInterpolator k = kfi.get(key);
       for (int i = 0; i < k.keyFrames().size(); ++i)
-        gScene.inputHandler().removeGrabber(k.keyFrames().get(i).frame());
+        if (k.keyFrames().get(i).handle() != null)
+          gScene.inputHandler().removeGrabber(k.keyFrames().get(i).handle());
       // Doesn't work since branch is already detached, i.e., frame is not reachable
       // gScene.pruneBranch(k.keyFrames().get(i).frame());
+      k.releaseHandles();
     }
   }
 
@@ -1590,10 +1696,19 @@ public abstract class Eye implements Copyable {
     if (kfi.containsKey(key)) {
       KeyFrameInterpolator k = kfi.get(key);
       for (int i = 0; i < k.keyFrames().size(); ++i)
-        gScene.inputHandler().addGrabber(k.keyFrames().get(i).frame());
+        attachKeyFrame(k.keyFrame(i));
     }
   }
 
+  /**
+   * Internal use. Makes the path {@code keyFrame} handle pickable.
+   */
+  protected void attachKeyFrame(GenericFrame keyFrame) {
+    keyFrame.setPickingPrecision(GenericFrame.PickingPrecision.FIXED);
+    keyFrame.setGrabsInputThreshold(AbstractScene.platform() == Platform.PROCESSING_ANDROID ? 50 : 20);
+    gScene.inputHandler().addGrabber(keyFrame);
+  }
+
   /**
    * Makes the Eye follow the path of keyFrameInterpolator() number {@code key}.
    * <p>
@@ -1629,6 +1744,7 @@ public abstract class Eye implements Copyable {
       detachPath(key);
       kfi.get(key).deletePath();
       kfi.remove(key);
+      kfiArray = null;
       System.out.println("Path " + key + " deleted");
     }
   }
@@ -1759,8 +1875,9 @@ public abstract class Eye implements Copyable {
   }
 
   /**
-   * Updates the boundary plane equations according to the current eye setup, by simply
-   * calling {@link #computeBoundaryEquations()}.
+   * Updates the boundary plane equations according to the current eye setup, by calling
+   * {@link #computeBoundaryEquations()} only if the eye {@link #version()} changed since
+   * the equations were last computed.
    * <p>
    * <b>Attention:</b> You should not call this method explicitly, unless you need the
    * boundary equations to be updated only occasionally (rare). Use
@@ -1776,9 +1893,9 @@ public abstract class Eye implements Copyable {
    * @see remixlab.dandelion.core.AbstractScene#enableBoundaryEquations()
    */
   public void updateBoundaryEquations() {
-    if (lastUpdate() != lastFPCoeficientsUpdateIssued) {
+    if (version() != lastFPCoeficientsUpdateIssued) {
       computeBoundaryEquations(fpCoefficients);
-      lastFPCoeficientsUpdateIssued = lastUpdate();
+      lastFPCoeficientsUpdateIssued = version();
     }
   }
 
@@ -1911,6 +2028,126 @@ public abstract class Eye implements Copyable {
    */
   public abstract Visibility boxVisibility(Vec p1, Vec p2);
 
+  /**
+   * Internal use. Packs the boundary equations into four structure-of-arrays coefficient
+   * arrays ({@code bndA}, {@code bndB}, {@code bndC} and {@code bndD}) so that the
+   * signed distance of {@code (x,y,z)} to plane {@code i} is
+   * {@code bndA[i]*x + bndB[i]*y + bndC[i]*z - bndD[i]}. 2D lines are normalized here,
+   * so that both eye types share the same layout. The packing is only refreshed when the
+   * boundary equations were recomputed (see {@link #updateBoundaryEquations()}).
+   */
+  protected void packBoundaryEquations() {
+    if (bndPackedUpdate == lastFPCoeficientsUpdateIssued && bndA != null)
+      return;
+    int n = fpCoefficients.length;
+    if (bndA == null || bndA.length != n) {
+      bndA = new float[n];
+      bndB = new float[n];
+      bndC = new float[n];
+      bndD = new float[n];
+    }
+    for (int i = 0; i < n; ++i) {
+      if (fpCoefficients[i].length == 4) {
+        bndA[i] = fpCoefficients[i][0];
+        bndB[i] = fpCoefficients[i][1];
+        bndC[i] = fpCoefficients[i][2];
+        bndD[i] = fpCoefficients[i][3];
+      } else {
+        float norm = (float) Math
+            .sqrt(fpCoefficients[i][0] * fpCoefficients[i][0] + fpCoefficients[i][1] * fpCoefficients[i][1]);
+        if (Util.zero(norm))
+          norm = 1;
+        bndA[i] = fpCoefficients[i][0] / norm;
+        bndB[i] = fpCoefficients[i][1] / norm;
+        bndC[i] = 0;
+        bndD[i] = -fpCoefficients[i][2] / norm;
+      }
+    }
+    bndPackedUpdate = lastFPCoeficientsUpdateIssued;
+  }
+
+  /**
+   * Batch version of {@link #ballVisibility(Vec, float)}.
+   * <p>
+   * Tests the {@code n} spheres whose centers are packed as {@code (x,y,z)} triples in
+   * {@code centers} (use {@code z = 0} in 2D) and whose radii are given in {@code radii}.
+   * The result of each test is written to {@code out} as the
+   * {@link remixlab.dandelion.core.Eye.Visibility#ordinal()} of the visibility state,
+   * i.e., {@code 0} for {@code VISIBLE}, {@code 1} for {@code SEMIVISIBLE} and {@code 2}
+   * for {@code INVISIBLE}. If {@code out} is null (or too short) a new array is created.
+   * <p>
+   * The test iterates over the boundary planes in the outer loop and over the spheres in
+   * the inner (branch-free) one, so that no {@code Vec} is allocated and the inner loop
+   * is amenable to auto-vectorization.
+   * <p>
+   * <b>Attention:</b> The eye boundary plane equations should be updated before calling
+   * this method (see {@link #updateBoundaryEquations()}).
+   *
+   * @see #boxVisibility(float[], float[], int, byte[])
+   */
+  public byte[] ballVisibility(float[] centers, float[] radii, int n, byte[] out) {
+    if (!gScene.areBoundaryEquationsEnabled())
+      System.out.println("The eye boundary equations (needed by ballVisibility) may be outdated. Please "
+          + "enable automatic updates of the equations in your PApplet.setup " + "with Scene.enableBoundaryEquations()");
+    if (out == null || out.length < n)
+      out = new byte[n];
+    packBoundaryEquations();
+    for (int i = 0; i < n; ++i)
+      out[i] = 0;
+    for (int p = 0; p < bndA.length; ++p) {
+      float a = bndA[p], b = bndB[p], c = bndC[p], d = bndD[p];
+      for (int i = 0, j = 0; i < n; ++i, j += 3) {
+        float r = radii[i];
+        float dst = a * centers[j] + b * centers[j + 1] + c * centers[j + 2] - d;
+        int code = dst > r ? 2 : (dst > -r ? 1 : 0);
+        out[i] = (byte) Math.max(out[i], code);
+      }
+    }
+    return out;
+  }
+
+  /**
+   * Batch version of {@link #boxVisibility(Vec, Vec)}.
+   * <p>
+   * Tests the {@code n} axis aligned boxes whose min and max corners are packed as
+   * {@code (x,y,z)} triples in {@code mins} and {@code maxs}, respectively (use
+   * {@code z = 0} in 2D). See {@link #ballVisibility(float[], float[], int, byte[])} for
+   * the {@code out} format.
+   * <p>
+   * Instead of testing the eight box corners against each plane, only the two corners
+   * which are the nearest and farthest along the plane normal are tested, which yields
+   * the same result as {@link #boxVisibility(Vec, Vec)}.
+   * <p>
+   * <b>Attention:</b> The eye boundary plane equations should be updated before calling
+   * this method (see {@link #updateBoundaryEquations()}).
+   *
+   * @see #ballVisibility(float[], float[], int, byte[])
+   */
+  public byte[] boxVisibility(float[] mins, float[] maxs, int n, byte[] out) {
+    if (!gScene.areBoundaryEquationsEnabled())
+      System.out.println("The eye boundary equations (needed by boxVisibility) may be outdated. Please "
+          + "enable automatic updates of the equations in your PApplet.setup " + "with Scene.enableBoundaryEquations()");
+    if (out == null || out.length < n)
+      out = new byte[n];
+    packBoundaryEquations();
+    for (int i = 0; i < n; ++i)
+      out[i] = 0;
+    for (int p = 0; p < bndA.length; ++p) {
+      float a = bndA[p], b = bndB[p], c = bndC[p], d = bndD[p];
+      for (int i = 0, j = 0; i < n; ++i, j += 3) {
+        float ax0 = a * mins[j], ax1 = a * maxs[j];
+        float by0 = b * mins[j + 1], by1 = b * maxs[j + 1];
+        float cz0 = c * mins[j + 2], cz1 = c * maxs[j + 2];
+        // farthest and nearest corners along the plane normal
+        float far = Math.max(ax0, ax1) + Math.max(by0, by1) + Math.max(cz0, cz1) - d;
+        float near = Math.min(ax0, ax1) + Math.min(by0, by1) + Math.min(cz0, cz1) - d;
+        int code = near > 0 ? 2 : (far > 0 ? 1 : 0);
+        out[i] = (byte) Math.max(out[i], code);
+      }
+    }
+    return out;
+  }
+
   /**
    * Returns the ratio of scene (units) to pixel at {@code position}.
    * <p>
@@ -1961,13 +2198,13 @@ public abstract class Eye implements Copyable {
       stopInterpolations();
 
     interpolationKfi.deletePath();
-    interpolationKfi.addKeyFrame(frame().detach());
+    interpolationKfi.addKeyFrame(frame().position(), frame().orientation(), frame().magnitude());
     GenericFrame originalFrame = frame();
     GenericFrame tempFrame = frame().detach();
     replaceFrame(tempFrame);
     fitScreenRegion(rectangle);
     setFrame(originalFrame);
-    interpolationKfi.addKeyFrame(tempFrame);
+    interpolationKfi.addKeyFrame(tempFrame.position(), tempFrame.orientation(), tempFrame.magnitude());
     interpolationKfi.startInterpolation();
   }
 
@@ -1987,13 +2224,13 @@ public abstract class Eye implements Copyable {
       stopInterpolations();
 
     interpolationKfi.deletePath();
-    interpolationKfi.addKeyFrame(frame().detach());
+    interpolationKfi.addKeyFrame(frame().position(), frame().orientation(), frame().magnitude());
     GenericFrame originalFrame = frame();
     GenericFrame tempFrame = frame().detach();
     replaceFrame(tempFrame);
     showEntireScene();
     setFrame(originalFrame);
-    interpolationKfi.addKeyFrame(tempFrame);
+    interpolationKfi.addKeyFrame(tempFrame.position(), tempFrame.orientation(), tempFrame.magnitude());
     interpolationKfi.startInterpolation();
   }
 
@@ -2022,7 +2259,7 @@ public abstract class Eye implements Copyable {
       stopInterpolations();
 
     interpolationKfi.deletePath();
-    interpolationKfi.addKeyFrame(frame().detach());
+    interpolationKfi.addKeyFrame(frame().position(), frame().orientation(), frame().magnitude());
     interpolationKfi.addKeyFrame(fr, duration);
     interpolationKfi.startInterpolation();
   }
@@ -0,0 +1,316 @@
+/**************************************************************************************
+ * dandelion_tree
+ * Copyright (c) 2014-2017 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.dandelion.core;
+
+import remixlab.dandelion.geom.Mat;
+import remixlab.dandelion.geom.Vec;
+import remixlab.util.Util;
+
+/**
+ * An immutable copy of the {@link remixlab.dandelion.core.Eye} state needed to perform
+ * projections, un-projections and visibility queries: the projection times view matrix,
+ * its inverse, the viewport and the boundary plane equations.
+ * <p>
+ * Since none of its fields can be modified once it's built (see
+ * {@link remixlab.dandelion.core.Eye#snapshot()}), an eye-snapshot may be freely shared
+ * among several threads (e.g., parallel culling or labeling jobs) without any locking.
+ * Note that a snapshot isn't updated when the eye changes: take a new one (typically
+ * once per frame, after {@link remixlab.dandelion.core.AbstractScene#preDraw()}) instead.
+ * <p>
+ * The boundary planes are stored as {@code a*x + b*y + c*z - d}, where {@code (a,b,c)}
+ * is the unit plane normal, for both the 3D {@link remixlab.dandelion.core.Camera} (6
+ * planes) and the 2D {@link remixlab.dandelion.core.Window} (4 lines, with {@code c = 0}
+ * ). Hence {@link #distanceToBoundary(int, float, float, float)} returns the signed
+ * distance in scene units in both cases, the same as
+ * {@link remixlab.dandelion.core.Eye#distanceToBoundary(int, Vec)} does.
+ */
+public final class EyeSnapshot {
+  private final float[] projView;
+  private final float[] projViewInv;
+  private final boolean invertible;
+  private final int[] viewport;
+  private final float[] planes;
+  private final int planeCount;
+  private final boolean threeD;
+  private final long lastUpdate;
+
+  /**
+   * Internal use. Use {@link remixlab.dandelion.core.Eye#snapshot()} instead.
+   *
+   * @param eye       the eye
+   * @param projview  projection times view matrix of the eye (copied)
+   * @param vp        the eye viewport (copied)
+   * @param coef      the eye boundary equations as returned by
+   *                  {@link remixlab.dandelion.core.Eye#computeBoundaryEquations(float[][])}
+   *                  (copied)
+   */
+  protected EyeSnapshot(Eye eye, Mat projview, int[] vp, float[][] coef) {
+    threeD = eye instanceof Camera;
+    lastUpdate = eye.lastUpdate();
+    projView = projview.get(new float[16]);
+    Mat inv = new Mat();
+    invertible = projview.invert(inv);
+    projViewInv = inv.get(new float[16]);
+    viewport = new int[4];
+    System.arraycopy(vp, 0, viewport, 0, 4);
+    planeCount = coef.length;
+    planes = new float[4 * planeCount];
+    for (int i = 0; i < planeCount; ++i) {
+      if (threeD) {
+        planes[4 * i] = coef[i][0];
+        planes[4 * i + 1] = coef[i][1];
+        planes[4 * i + 2] = coef[i][2];
+        planes[4 * i + 3] = coef[i][3];
+      } else {
+        // Window lines are a*x + b*y + c = 0 with non-unit (a,b)
+        float norm = (float) Math.sqrt(coef[i][0] * coef[i][0] + coef[i][1] * coef[i][1]);
+        if (Util.zero(norm))
+          norm = 1;
+        planes[4 * i] = coef[i][0] / norm;
+        planes[4 * i + 1] = coef[i][1] / norm;
+        planes[4 * i + 2] = 0;
+        planes[4 * i + 3] = -coef[i][2] / norm;
+      }
+    }
+  }
+
+  /**
+   * Returns {@code true} if the snapshot was taken from a
+   * {@link remixlab.dandelion.core.Camera} and {@code false} if it was taken from a
+   * {@link remixlab.dandelion.core.Window}.
+   */
+  public boolean is3D() {
+    return threeD;
+  }
+
+  /**
+   * Returns the {@link remixlab.dandelion.core.Eye#lastUpdate()} value at the time the
+   * snapshot was taken. Compare it against the current value to find out whether the
+   * snapshot is outdated.
+   */
+  public long lastUpdate() {
+    return lastUpdate;
+  }
+
+  /**
+   * Returns the number of boundary planes: 6 in 3D and 4 in 2D.
+   */
+  public int boundaryCount() {
+    return planeCount;
+  }
+
+  /**
+   * Returns a copy of the projection times view matrix.
+   */
+  public Mat projectionView() {
+    return new Mat(projView);
+  }
+
+  /**
+   * Returns a copy of the inverse of the projection times view matrix, or {@code null}
+   * if it isn't invertible.
+   */
+  public Mat projectionViewInverse() {
+    return invertible ? new Mat(projViewInv) : null;
+  }
+
+  /**
+   * Fills {@code vp} with the viewport and returns it. If {@code vp} is null (or not the
+   * correct size), a new array will be created.
+   *
+   * @see remixlab.dandelion.core.Eye#getViewport(int[])
+   */
+  public int[] getViewport(int[] vp) {
+    if ((vp == null) || (vp.length != 4))
+      vp = new int[4];
+    System.arraycopy(viewport, 0, vp, 0, 4);
+    return vp;
+  }
+
+  /**
+   * Fills {@code target} with the 4 coefficients of the {@code index} boundary plane and
+   * returns it. See the class documentation for the coefficients layout.
+   */
+  public float[] getBoundaryEquation(int index, float[] target) {
+    if ((target == null) || (target.length != 4))
+      target = new float[4];
+    System.arraycopy(planes, 4 * index, target, 0, 4);
+    return target;
+  }
+
+  // PROJECTION
+
+  /**
+   * Same as {@link remixlab.dandelion.core.Eye#project(float, float, float, float[])}
+   * but using the snapshot state.
+   */
+  public boolean project(float objx, float objy, float objz, float[] windowCoordinate) {
+    float x = projView[0] * objx + projView[4] * objy + projView[8] * objz + projView[12];
+    float y = projView[1] * objx + projView[5] * objy + projView[9] * objz + projView[13];
+    float z = projView[2] * objx + projView[6] * objy + projView[10] * objz + projView[14];
+    float w = projView[3] * objx + projView[7] * objy + projView[11] * objz + projView[15];
+
+    if (w == 0.0)
+      return false;
+
+    x /= w;
+    y /= w;
+    z /= w;
+
+    // Map x, y and z to range 0-1 and then x,y to viewport
+    windowCoordinate[0] = (x * 0.5f + 0.5f) * viewport[2] + viewport[0];
+    windowCoordinate[1] = (y * 0.5f + 0.5f) * viewport[3] + viewport[1];
+    windowCoordinate[2] = z * 0.5f + 0.5f;
+    return true;
+  }
+
+  /**
+   * Same as {@link remixlab.dandelion.core.Eye#unproject(float, float, float, float[])}
+   * but using the snapshot state.
+   */
+  public boolean unproject(float winx, float winy, float winz, float[] objCoordinate) {
+    if (!invertible)
+      return false;
+
+    // Map x and y from window coordinates and then to range -1 to 1
+    float x = ((winx - viewport[0]) / viewport[2]) * 2 - 1;
+    float y = ((winy - viewport[1]) / viewport[3]) * 2 - 1;
+    float z = winz * 2 - 1;
+
+    float w = projViewInv[3] * x + projViewInv[7] * y + projViewInv[11] * z + projViewInv[15];
+    if (Util.zero(w))
+      return false;
+
+    objCoordinate[0] = (projViewInv[0] * x + projViewInv[4] * y + projViewInv[8] * z + projViewInv[12]) / w;
+    objCoordinate[1] = (projViewInv[1] * x + projViewInv[5] * y + projViewInv[9] * z + projViewInv[13]) / w;
+    objCoordinate[2] = (projViewInv[2] * x + projViewInv[6] * y + projViewInv[10] * z + projViewInv[14]) / w;
+    return true;
+  }
+
+  /**
+   * Same as {@link remixlab.dandelion.core.Eye#projectedCoordinatesOf(Vec)} but using the
+   * snapshot state.
+   */
+  public Vec projectedCoordinatesOf(Vec src) {
+    float xyz[] = new float[3];
+    project(src.vec[0], src.vec[1], src.vec[2], xyz);
+    return new Vec(xyz[0], xyz[1], xyz[2]);
+  }
+
+  /**
+   * Same as {@link remixlab.dandelion.core.Eye#unprojectedCoordinatesOf(Vec)} but using
+   * the snapshot state.
+   */
+  public Vec unprojectedCoordinatesOf(Vec src) {
+    float xyz[] = new float[3];
+    unproject(src.vec[0], src.vec[1], src.vec[2], xyz);
+    return new Vec(xyz[0], xyz[1], xyz[2]);
+  }
+
+  // VISIBILITY
+
+  /**
+   * Returns the signed distance between point {@code (x,y,z)} and the {@code index}
+   * boundary plane. The distance is negative if the point lies in the planes's boundary
+   * halfspace, and positive otherwise.
+   *
+   * @see remixlab.dandelion.core.Eye#distanceToBoundary(int, Vec)
+   */
+  public float distanceToBoundary(int index, float x, float y, float z) {
+    int i = 4 * index;
+    return planes[i] * x + planes[i + 1] * y + planes[i + 2] * z - planes[i + 3];
+  }
+
+  /**
+   * Same as {@code distanceToBoundary(index, pos.x(), pos.y(), pos.z())}.
+   */
+  public float distanceToBoundary(int index, Vec pos) {
+    return distanceToBoundary(index, pos.vec[0], pos.vec[1], pos.vec[2]);
+  }
+
+  /**
+   * Same as {@link remixlab.dandelion.core.Eye#isPointVisible(Vec)} but using the
+   * snapshot state.
+   */
+  public boolean isPointVisible(Vec point) {
+    for (int i = 0; i < planeCount; ++i)
+      if (distanceToBoundary(i, point) > 0)
+        return false;
+    return true;
+  }
+
+  /**
+   * Same as {@link remixlab.dandelion.core.Eye#ballVisibility(Vec, float)} but using the
+   * snapshot state.
+   */
+  public Eye.Visibility ballVisibility(Vec center, float radius) {
+    boolean allInForAllPlanes = true;
+    for (int i = 0; i < planeCount; ++i) {
+      float d = distanceToBoundary(i, center);
+      if (d > radius)
+        return Eye.Visibility.INVISIBLE;
+      if ((d > 0) || (-d < radius))
+        allInForAllPlanes = false;
+    }
+    if (allInForAllPlanes)
+      return Eye.Visibility.VISIBLE;
+    return Eye.Visibility.SEMIVISIBLE;
+  }
+
+  /**
+   * Returns {@code true} if the ball of center {@code (x,y,z)} and {@code radius} is at
+   * least partially visible, i.e., if {@link #ballVisibility(Vec, float)} wouldn't be
+   * {@link remixlab.dandelion.core.Eye.Visibility#INVISIBLE}. No object is allocated.
+   */
+  public boolean isBallVisible(float x, float y, float z, float radius) {
+    for (int i = 0; i < planeCount; ++i)
+      if (distanceToBoundary(i, x, y, z) > radius)
+        return false;
+    return true;
+  }
+
+  /**
+   * Same as {@link remixlab.dandelion.core.Eye#boxVisibility(Vec, Vec)} but using the
+   * snapshot state.
+   */
+  public Eye.Visibility boxVisibility(Vec p1, Vec p2) {
+    boolean allInForAllPlanes = true;
+    int corners = threeD ? 8 : 4;
+    for (int i = 0; i < planeCount; ++i) {
+      boolean allOut = true;
+      for (int c = 0; c < corners; ++c) {
+        float x, y, z;
+        if (threeD) {
+          x = ((c & 4) != 0) ? p1.vec[0] : p2.vec[0];
+          y = ((c & 2) != 0) ? p1.vec[1] : p2.vec[1];
+          z = ((c & 1) != 0) ? p1.vec[2] : p2.vec[2];
+        } else {
+          x = ((c & 2) != 0) ? p1.vec[0] : p2.vec[0];
+          y = ((c & 1) != 0) ? p1.vec[1] : p2.vec[1];
+          z = 0;
+        }
+        if (distanceToBoundary(i, x, y, z) > 0.0)
+          allInForAllPlanes = false;
+        else
+          allOut = false;
+      }
+      // All the corners are on the outside side of this plane
+      if (allOut)
+        return Eye.Visibility.INVISIBLE;
+    }
+
+    if (allInForAllPlanes)
+      return Eye.Visibility.VISIBLE;
+
+    // Too conservative, but tangent cases are too expensive to detect
+    return Eye.Visibility.SEMIVISIBLE;
+  }
+}
@@ -21,6 +21,7 @@ import remixlab.fpstiming.TimingTask;
 import remixlab.util.Util;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 
@@ -148,6 +149,10 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
   protected static final long FLY_UPDATE_PERDIOD = 20;
 
   protected long lastUpdate;
+  protected long version;
+  protected long branchVersion;
+  protected boolean modifying;
+  protected static long versionCount;
   protected AbstractScene gScene;
   protected Eye theeye;
 
@@ -155,6 +160,8 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
 
   private boolean visit;
 
+  private float bRadius = -1;
+
   private boolean hint;
 
   /**
@@ -171,6 +178,17 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
 
   protected List<GenericFrame> childrenList;
 
+  // back buffer, see setPendingTranslation(Vec) and AbstractScene.publishTransforms()
+  protected Vec pendingTrans;
+  protected Rotation pendingRot;
+  protected float pendingScl;
+  protected GenericFrame pendingRef;
+  protected boolean pendingRefFlag;
+  protected boolean pendingScheduled;
+
+  // previous simulation tick (translation, rotation quaternion and scaling), see beginTick()
+  protected float[] prevTick;
+
   /**
    * Same as {@code this(scn, null, new Vec(), scn.is3D() ? new Quat() : new Rot(), 1)}.
    *
@@ -545,6 +563,9 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
 
     this.visit = otherFrame.visit;
     this.hint = otherFrame.hint;
+    this.bRadius = otherFrame.bRadius;
+    if (otherFrame.prevTick != null)
+      this.prevTick = otherFrame.prevTick.clone();
 
     this.childrenList = new ArrayList<GenericFrame>();
     this.setReferenceFrame(referenceFrame());// restorePath
@@ -683,6 +704,7 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
       return false;
     if (hasChild(frame))
       return false;
+    branchModified();
     return children().add(frame);
   }
 
@@ -699,6 +721,8 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
         break;
       }
     }
+    if (result)
+      branchModified();
     return result;
   }
 
@@ -771,6 +795,25 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
     return visit;
   }
 
+  /**
+   * Returns the radius (in frame units) of the ball centered at the frame origin which
+   * bounds the frame geometry. Used to cull the frame in
+   * {@link remixlab.dandelion.core.AbstractScene#traverseTree(java.util.concurrent.ExecutorService, int)}
+   * . A negative value (default) means the frame is never culled.
+   *
+   * @see #setBoundingRadius(float)
+   */
+  public float boundingRadius() {
+    return bRadius;
+  }
+
+  /**
+   * Sets the {@link #boundingRadius()}.
+   */
+  public void setBoundingRadius(float radius) {
+    bRadius = radius;
+  }
+
   /**
    * Enables drawing of the frame picking hint. Only meaningful if frame is not
    * an eye frame.
@@ -1092,6 +1135,126 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
     scn.applyWorldTransformation(this);
   }
 
+  // BACK BUFFER
+
+  /**
+   * Thread-safe version of {@link #setTranslation(Vec)}.
+   * <p>
+   * Writes a copy of {@code t} into the frame back buffer. The value becomes the frame
+   * {@link #translation()} the next time the scene
+   * {@link remixlab.dandelion.core.AbstractScene#publishTransforms()} (i.e., at the
+   * beginning of {@link remixlab.dandelion.core.AbstractScene#preDraw()}). Use this method
+   * (and the other {@code setPending*} ones) to move the frame from a thread different
+   * than the rendering one (e.g., a simulation or a network thread), so that
+   * {@link remixlab.dandelion.core.AbstractScene#traverseTree()} never sees a half-updated
+   * frame.
+   *
+   * @see #setPendingRotation(Rotation)
+   * @see #setPendingScaling(float)
+   * @see #setPendingReferenceFrame(GenericFrame)
+   * @see #hasPendingState()
+   */
+  public void setPendingTranslation(Vec t) {
+    if (t == null)
+      return;
+    synchronized (scene().transformLock()) {
+      pendingTrans = t.get();
+      scene().schedulePublish(this);
+    }
+  }
+
+  /**
+   * Same as {@link #setPendingTranslation(Vec)} but with {@code float} parameters.
+   */
+  public void setPendingTranslation(float x, float y, float z) {
+    setPendingTranslation(new Vec(x, y, z));
+  }
+
+  /**
+   * Thread-safe version of {@link #setRotation(Rotation)}. See
+   * {@link #setPendingTranslation(Vec)} for details.
+   */
+  public void setPendingRotation(Rotation r) {
+    if (r == null)
+      return;
+    if (is3D() != (r instanceof Quat)) {
+      System.out.println("Warning: nothing done: pending rotation doesn't match the frame dimension");
+      return;
+    }
+    synchronized (scene().transformLock()) {
+      pendingRot = r.get();
+      scene().schedulePublish(this);
+    }
+  }
+
+  /**
+   * Thread-safe version of {@link #setScaling(float)}. See
+   * {@link #setPendingTranslation(Vec)} for details.
+   */
+  public void setPendingScaling(float s) {
+    if (!Util.positive(s)) {
+      System.out.println("Warning. Scaling should be positive. Nothing done");
+      return;
+    }
+    synchronized (scene().transformLock()) {
+      pendingScl = s;
+      scene().schedulePublish(this);
+    }
+  }
+
+  /**
+   * Thread-safe version of {@link #setReferenceFrame(GenericFrame)}. Re-parenting
+   * modifies the {@link #children()} lists of the old and new reference frames, so that
+   * it's also deferred until the scene
+   * {@link remixlab.dandelion.core.AbstractScene#publishTransforms()}. See
+   * {@link #setPendingTranslation(Vec)} for details.
+   */
+  public void setPendingReferenceFrame(GenericFrame frame) {
+    synchronized (scene().transformLock()) {
+      pendingRef = frame;
+      pendingRefFlag = true;
+      scene().schedulePublish(this);
+    }
+  }
+
+  /**
+   * Returns {@code true} if the frame back buffer holds values not yet published by the
+   * scene.
+   *
+   * @see #setPendingTranslation(Vec)
+   */
+  public boolean hasPendingState() {
+    synchronized (scene().transformLock()) {
+      return pendingScheduled;
+    }
+  }
+
+  /**
+   * Internal use. Swaps the back buffer into the frame state. Called by
+   * {@link remixlab.dandelion.core.AbstractScene#publishTransforms()} (from the rendering
+   * thread) while holding the scene {@link AbstractScene#transformLock()}.
+   */
+  protected void publishPendingState() {
+    if (pendingRefFlag) {
+      setReferenceFrame(pendingRef);
+      pendingRef = null;
+      pendingRefFlag = false;
+    }
+    if (pendingTrans != null) {
+      setTranslation(pendingTrans);
+      pendingTrans = null;
+    }
+    if (pendingRot != null) {
+      setRotation(pendingRot);
+      pendingRot = null;
+    }
+    if (pendingScl > 0) {
+      setScaling(pendingScl);
+      pendingScl = 0;
+    }
+    pendingScheduled = false;
+  }
+
   // MODIFIED
 
   /**
@@ -1100,9 +1263,313 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
   @Override
   protected void modified() {
     lastUpdate = AbstractScene.frameCount;
-    if (children() != null)
+    version = nextVersion();
+    if (children() != null) {
+      modifying = true;
       for (GenericFrame child : children())
         child.modified();
+      modifying = false;
+    }
+    // the ancestors branch versions are updated once, by the top most modified frame
+    branchVersion = versionCount;
+    if (referenceFrame() == null || !referenceFrame().modifying)
+      for (GenericFrame frame = referenceFrame(); frame != null; frame = frame.referenceFrame())
+        frame.branchVersion = branchVersion;
+  }
+
+  /**
+   * Internal use. Called when the frame {@link #children()} list changes. Updates the
+   * {@link #branchVersion()} of the frame and all its ancestors and notifies the
+   * {@link #scene()} (see {@link remixlab.dandelion.core.AbstractScene#treeVersion()}).
+   */
+  protected void branchModified() {
+    long v = nextVersion();
+    for (GenericFrame frame = this; frame != null; frame = frame.referenceFrame())
+      frame.branchVersion = v;
+    if (scene() != null)
+      scene().treeModified();
+  }
+
+  // TICK INTERPOLATION
+
+  /**
+   * Enables the tick interpolation of the frame: the frame keeps its transformation at the
+   * previous simulation tick (see
+   * {@link remixlab.dandelion.core.AbstractScene#beginTick()}) and is rendered at the
+   * {@link #interpolatedMatrix(Mat)}, i.e., blended from the previous to the current
+   * transformation according to the
+   * {@link remixlab.dandelion.core.AbstractScene#tickAlpha()}. This hides the judder of
+   * simulations running at a lower rate than the display.
+   *
+   * @see #disableTickInterpolation()
+   */
+  public void enableTickInterpolation() {
+    if (prevTick == null) {
+      prevTick = new float[8];
+      beginTick();
+    }
+  }
+
+  /**
+   * Disables the tick interpolation of the frame.
+   *
+   * @see #enableTickInterpolation()
+   */
+  public void disableTickInterpolation() {
+    prevTick = null;
+  }
+
+  /**
+   * Returns {@code true} if the tick interpolation of the frame is enabled.
+   *
+   * @see #enableTickInterpolation()
+   */
+  public boolean isTickInterpolationEnabled() {
+    return prevTick != null;
+  }
+
+  /**
+   * Saves the current frame transformation as the previous tick one. Does nothing if the
+   * tick interpolation is disabled. Called on all the reachable frames by
+   * {@link remixlab.dandelion.core.AbstractScene#beginTick()}, at the beginning of each
+   * simulation tick. Call it yourself only for frames which are not reachable.
+   */
+  public void beginTick() {
+    if (prevTick == null)
+      return;
+    prevTick[0] = translation().vec[0];
+    prevTick[1] = translation().vec[1];
+    prevTick[2] = translation().vec[2];
+    if (rotation() instanceof Quat)
+      System.arraycopy(((Quat) rotation()).quat, 0, prevTick, 3, 4);
+    else {
+      float half = rotation().angle() / 2;
+      prevTick[3] = 0;
+      prevTick[4] = 0;
+      prevTick[5] = (float) Math.sin(half);
+      prevTick[6] = (float) Math.cos(half);
+    }
+    prevTick[7] = scaling();
+  }
+
+  /**
+   * Same as {@code interpolatedMatrix(target, scene().tickAlpha())}.
+   */
+  public Mat interpolatedMatrix(Mat target) {
+    return interpolatedMatrix(target, gScene == null ? 1 : gScene.tickAlpha());
+  }
+
+  /**
+   * Fills {@code target} with the local transformation matrix blended from the previous
+   * tick (see {@link #beginTick()}) to the current one by {@code alpha}, and returns it:
+   * translation and scaling are linearly interpolated, and the rotation is normalized
+   * linearly interpolated along the shortest path. Same as {@link #matrix(Mat)} if the
+   * tick interpolation is disabled or {@code alpha >= 1}. No object is allocated (unless
+   * {@code target} is {@code null}).
+   */
+  public Mat interpolatedMatrix(Mat target, float alpha) {
+    if (prevTick == null || alpha >= 1)
+      return matrix(target);
+    if (target == null)
+      target = new Mat();
+    float[] p = prevTick;
+    float qx, qy, qz, qw;
+    if (rotation() instanceof Quat) {
+      float[] q = ((Quat) rotation()).quat;
+      qx = q[0];
+      qy = q[1];
+      qz = q[2];
+      qw = q[3];
+    } else {
+      float half = rotation().angle() / 2;
+      qx = qy = 0;
+      qz = (float) Math.sin(half);
+      qw = (float) Math.cos(half);
+    }
+    // shortest path
+    float sign = p[3] * qx + p[4] * qy + p[5] * qz + p[6] * qw < 0 ? -1 : 1;
+    float beta = 1 - alpha;
+    float x = beta * p[3] + alpha * sign * qx;
+    float y = beta * p[4] + alpha * sign * qy;
+    float z = beta * p[5] + alpha * sign * qz;
+    float w = beta * p[6] + alpha * sign * qw;
+    float norm = (float) Math.sqrt(x * x + y * y + z * z + w * w);
+    if (Util.zero(norm)) {
+      x = y = z = 0;
+      w = 1;
+    } else {
+      x /= norm;
+      y /= norm;
+      z /= norm;
+      w /= norm;
+    }
+    float s = beta * p[7] + alpha * scaling();
+    float q00 = 2.0f * x * x, q11 = 2.0f * y * y, q22 = 2.0f * z * z;
+    float q01 = 2.0f * x * y, q02 = 2.0f * x * z, q03 = 2.0f * x * w;
+    float q12 = 2.0f * y * z, q13 = 2.0f * y * w, q23 = 2.0f * z * w;
+    float[] m = target.mat;
+    m[0] = (1.0f - q11 - q22) * s;
+    m[1] = (q01 + q23) * s;
+    m[2] = (q02 - q13) * s;
+    m[3] = 0;
+    m[4] = (q01 - q23) * s;
+    m[5] = (1.0f - q22 - q00) * s;
+    m[6] = (q12 + q03) * s;
+    m[7] = 0;
+    m[8] = (q02 + q13) * s;
+    m[9] = (q12 - q03) * s;
+    m[10] = (1.0f - q11 - q00) * s;
+    m[11] = 0;
+    m[12] = beta * p[0] + alpha * translation().vec[0];
+    m[13] = beta * p[1] + alpha * translation().vec[1];
+    m[14] = beta * p[2] + alpha * translation().vec[2];
+    m[15] = 1;
+    return target;
+  }
+
+  // BULK
+
+  /**
+   * Sets the translation and rotation of the first {@code n} {@code frames} at once, e.g.,
+   * from the packed output arrays of a physics engine. The {@code i}-th frame takes its
+   * position from {@code positions[3*i..3*i+2]} and its orientation from the
+   * {@code (x,y,z,w)} quaternion at {@code orientations[4*i..4*i+3]}. For 2D frames the
+   * z position is ignored and the rotation angle is taken from the quaternion z
+   * component, i.e., as a rotation around the z-axis.
+   * <p>
+   * If {@code world} is {@code true} the values are given in world coordinates (as in
+   * {@link #setPosition(Vec)} and {@link #setOrientation(Rotation)}), otherwise they're
+   * given with respect to the {@link #referenceFrame()} (as in
+   * {@link #setTranslation(Vec)} and {@link #setRotation(Rotation)}). In the former case
+   * the world transformation inverse of each reference frame is computed only once per
+   * call. Frames given together with their reference frames should then come after them
+   * in {@code frames}.
+   * <p>
+   * Contrary to calling those setters for each frame, the frames translation and rotation
+   * are updated in place, the {@link #constraint()} is not taken into account, and the
+   * frames (together with their descendants) get a single modification stamp (see
+   * {@link #version()}) once all of them have been set. Call it from the thread that
+   * draws the scene, or see {@link #setPendingTranslation(Vec)} otherwise.
+   */
+  public static void setTransforms(GenericFrame[] frames, float[] positions, float[] orientations, int n,
+                                   boolean world) {
+    setTransforms(frames, positions, orientations, null, n, world);
+  }
+
+  /**
+   * Same as {@link #setTransforms(GenericFrame[], float[], float[], int, boolean)}, but
+   * also sets the frames magnitude (if {@code world} is {@code true}, see
+   * {@link #setMagnitude(float)}) or scaling (see {@link #setScaling(float)}) from
+   * {@code magnitudes[i]}. The frames scaling is left untouched if {@code magnitudes} is
+   * {@code null}.
+   */
+  public static void setTransforms(GenericFrame[] frames, float[] positions, float[] orientations, float[] magnitudes,
+                                   int n, boolean world) {
+    IdentityHashMap<GenericFrame, float[]> inverses = world ? new IdentityHashMap<GenericFrame, float[]>() : null;
+    for (int i = 0; i < n; i++) {
+      GenericFrame frame = frames[i];
+      float px = positions[3 * i], py = positions[3 * i + 1], pz = positions[3 * i + 2];
+      float qx = orientations[4 * i], qy = orientations[4 * i + 1], qz = orientations[4 * i + 2];
+      float qw = orientations[4 * i + 3];
+      float norm = (float) Math.sqrt(qx * qx + qy * qy + qz * qz + qw * qw);
+      if (Util.zero(norm)) {
+        qx = qy = qz = 0;
+        qw = 1;
+      } else {
+        qx /= norm;
+        qy /= norm;
+        qz /= norm;
+        qw /= norm;
+      }
+      GenericFrame ref = frame.referenceFrame();
+      if (world && ref != null) {
+        float[] inv = inverses.get(ref);
+        if (inv == null) {
+          inv = worldTransform(ref);
+          inverses.put(ref, inv);
+        }
+        float dx = (px - inv[0]) / inv[7], dy = (py - inv[1]) / inv[7], dz = (pz - inv[2]) / inv[7];
+        float x = inv[3], y = inv[4], z = inv[5], w = inv[6];
+        float q00 = 2.0f * x * x, q11 = 2.0f * y * y, q22 = 2.0f * z * z;
+        float q01 = 2.0f * x * y, q02 = 2.0f * x * z, q03 = 2.0f * x * w;
+        float q12 = 2.0f * y * z, q13 = 2.0f * y * w, q23 = 2.0f * z * w;
+        // inverse rotation, i.e., transposed rotation matrix
+        px = (1.0f - q11 - q22) * dx + (q01 + q23) * dy + (q02 - q13) * dz;
+        py = (q01 - q23) * dx + (1.0f - q22 - q00) * dy + (q12 + q03) * dz;
+        pz = (q02 + q13) * dx + (q12 - q03) * dy + (1.0f - q11 - q00) * dz;
+        // inverse(ref orientation) * orientation
+        float rx = w * qx - qw * x - y * qz + z * qy;
+        float ry = w * qy - qw * y + x * qz - z * qx;
+        float rz = w * qz - qw * z - x * qy + y * qx;
+        float rw = w * qw + x * qx + y * qy + z * qz;
+        qx = rx;
+        qy = ry;
+        qz = rz;
+        qw = rw;
+        if (magnitudes != null && magnitudes[i] > 0)
+          frame.scl = magnitudes[i] / inv[7];
+      } else if (magnitudes != null && magnitudes[i] > 0)
+        frame.scl = magnitudes[i];
+      frame.trans.set(px, py, frame.is3D() ? pz : 0);
+      if (frame.rot instanceof Quat) {
+        float[] q = ((Quat) frame.rot).quat;
+        q[0] = qx;
+        q[1] = qy;
+        q[2] = qz;
+        q[3] = qw;
+      } else
+        frame.rot = new Rot(2 * (float) Math.atan2(qz, qw));
+      // the cached inverse (if any) is now outdated
+      if (world)
+        inverses.remove(frame);
+    }
+    long v = nextVersion();
+    for (int i = 0; i < n; i++)
+      frames[i].stamp(v);
+  }
+
+  /**
+   * Internal use. Returns the {@code frame} world transformation as
+   * {@code [position, orientation quaternion, magnitude]}. Used by
+   * {@link #setTransforms(GenericFrame[], float[], float[], float[], int, boolean)}.
+   */
+  protected static float[] worldTransform(GenericFrame frame) {
+    float[] result = new float[8];
+    Vec p = frame.position();
+    result[0] = p.vec[0];
+    result[1] = p.vec[1];
+    result[2] = p.vec[2];
+    Rotation o = frame.orientation();
+    if (o instanceof Quat)
+      System.arraycopy(((Quat) o).quat, 0, result, 3, 4);
+    else {
+      float half = ((Rot) o).angle() / 2;
+      result[5] = (float) Math.sin(half);
+      result[6] = (float) Math.cos(half);
+    }
+    result[7] = frame.magnitude();
+    if (Util.zero(result[7]))
+      result[7] = 1;
+    return result;
+  }
+
+  /**
+   * Internal use. Same as {@link #modified()}, but stamping the frame, its descendants and
+   * ancestors with the given version {@code v}, so that a set of frames is modified at
+   * once.
+   */
+  protected void stamp(long v) {
+    if (version == v)
+      return;
+    lastUpdate = AbstractScene.frameCount;
+    version = v;
+    branchVersion = v;
+    if (children() != null)
+      for (GenericFrame child : children())
+        child.stamp(v);
+    for (GenericFrame frame = referenceFrame(); frame != null && frame.branchVersion != v; frame = frame
+        .referenceFrame())
+      frame.branchVersion = v;
   }
 
   /**
@@ -1112,6 +1579,40 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
     return lastUpdate;
   }
 
+  /**
+   * Returns a counter which strictly increases each time the frame (or one of its
+   * ancestors) is modified. Contrary to {@link #lastUpdate()}, which only has a per-frame
+   * resolution, comparing two values of this counter always tells whether the frame
+   * changed in between.
+   * <p>
+   * Version values are drawn from a single counter shared by all frames (see
+   * {@link #nextVersion()}), so that a version taken from one frame may safely be
+   * compared against that of any other.
+   */
+  public long version() {
+    return version;
+  }
+
+  /**
+   * Returns the max {@link #version()} among the frame and all its descendants (also
+   * updated when a frame is added to or removed from the branch). Hence if this value
+   * didn't change, none of the branch frames did.
+   *
+   * @see remixlab.dandelion.core.RetainedDrawList
+   */
+  public long branchVersion() {
+    return branchVersion;
+  }
+
+  /**
+   * Internal use. Returns the next (globally unique) version number.
+   *
+   * @see #version()
+   */
+  protected static long nextVersion() {
+    return ++versionCount;
+  }
+
   // SYNC
 
   /**
@@ -1574,11 +2075,11 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
       float dx = rotationSensitivity() * (x - cx) / gScene.camera().screenWidth();
       float dy = rotationSensitivity() * (gScene.isLeftHanded() ? (y - cy) : (cy - y)) / gScene.camera().screenHeight();
 
-      Vec p1 = new Vec(px, py, projectOnBall(px, py));
-      Vec p2 = new Vec(dx, dy, projectOnBall(dx, dy));
+      Vec p1 = ScratchArena.vec(px, py, projectOnBall(px, py));
+      Vec p2 = ScratchArena.vec(dx, dy, projectOnBall(dx, dy));
       // Approximation of rotation angle Should be divided by the projectOnBall
       // size, but it is 1.0
-      Vec axis = p2.cross(p1);
+      Vec axis = p2.cross(p1, ScratchArena.vec());
       float angle = 2.0f * (float) Math.asin((float) Math.sqrt(axis.squaredNorm() / p1.squaredNorm() / p2.squaredNorm()));
       return new Quat(axis, angle);
     }
@@ -2463,17 +2964,17 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
     // 3. Rotate the refFrame around its X-axis -> translate forward-backward
     // the frame on the sphere surface
     float deltaY = computeAngle(event.dy());
-    rFrame.rotate(new Quat(new Vec(1, 0, 0), gScene.isRightHanded() ? deltaY : -deltaY));
+    rFrame.rotate(ScratchArena.quat(ScratchArena.vec(1, 0, 0), gScene.isRightHanded() ? deltaY : -deltaY));
     // 4. Rotate the refFrame around its Y-axis -> translate left-right the
     // frame on the sphere surface
     float deltaX = computeAngle(event.dx());
-    rFrame.rotate(new Quat(new Vec(0, 1, 0), deltaX));
+    rFrame.rotate(ScratchArena.quat(ScratchArena.vec(0, 1, 0), deltaX));
     // 5. Rotate the refFrame around its Z-axis -> look around
     float rZ = computeAngle(event.drz());
-    rFrame.rotate(new Quat(new Vec(0, 0, 1), gScene.isRightHanded() ? -rZ : rZ));
+    rFrame.rotate(ScratchArena.quat(ScratchArena.vec(0, 0, 1), gScene.isRightHanded() ? -rZ : rZ));
     // 6. Rotate the frame around x-axis -> move head up and down :P
     float rX = computeAngle(event.drx());
-    Quat q = new Quat(new Vec(1, 0, 0), gScene.isRightHanded() ? rX : -rX);
+    Quat q = ScratchArena.quat(ScratchArena.vec(1, 0, 0), gScene.isRightHanded() ? rX : -rX);
     rotate(q);
     // 7. Unrelate the frame and restore state:
     pos = position();
@@ -2955,8 +3456,10 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
     if (gScene.isRightHanded())
       deltaY = -deltaY;
 
-    Quat rotX = new Quat(new Vec(1.0f, 0.0f, 0.0f), rotationSensitivity() * deltaY / camera.screenHeight());
-    Quat rotY = new Quat(transformOf(sceneUpVector()), rotationSensitivity() * (-deltaX) / camera.screenWidth());
+    Quat rotX = ScratchArena.quat(ScratchArena.vec(1.0f, 0.0f, 0.0f),
+        rotationSensitivity() * deltaY / camera.screenHeight());
+    Quat rotY = ScratchArena.quat(transformOf(sceneUpVector()),
+        rotationSensitivity() * (-deltaX) / camera.screenWidth());
     return Quat.multiply(rotY, rotX);
   }
 
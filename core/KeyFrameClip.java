@@ -0,0 +1,269 @@
+/**************************************************************************************
+ * dandelion_tree
+ * Copyright (c) 2014-2017 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.dandelion.core;
+
+/**
+ * A compact, immutable animation clip baked from a
+ * {@link remixlab.dandelion.core.KeyFrameInterpolator} (see
+ * {@link remixlab.dandelion.core.KeyFrameInterpolator#bake(float)}).
+ * <p>
+ * The interpolator path is sampled at a fixed rate and each sample is quantized as
+ * follows:
+ * <ol>
+ * <li>Position: 3 x 16 bits, relative to the path bounding box.</li>
+ * <li>Orientation: 48 bits, using the "smallest three" quaternion encoding, i.e., the
+ * index of the largest component (2 bits) and the other three components (15 bits
+ * each).</li>
+ * <li>Magnitude: a 16 bits half-float.</li>
+ * </ol>
+ * That is 14 bytes per sample. Sampling the clip (see {@link #sample(float, float[], int)})
+ * costs constant time, since it only decodes and blends the two samples surrounding the
+ * given time, and doesn't allocate any object.
+ */
+public class KeyFrameClip {
+  protected static final float SQRT2 = (float) Math.sqrt(2);
+
+  protected final int count;
+  protected final float start, step;
+  protected final float[] min, extent;
+  protected final short[] positions, rotations, magnitudes;
+
+  /**
+   * Internal use. Use {@link remixlab.dandelion.core.KeyFrameInterpolator#bake(float)}
+   * instead.
+   *
+   * @param samples the {@code n} samples as returned by
+   *                {@link remixlab.dandelion.core.KeyFrameInterpolator#sample(float, float[], int)},
+   *                i.e., 8 floats per sample
+   * @param n       number of samples (at least 1)
+   * @param first   time of the first sample
+   * @param dt      time between samples
+   */
+  protected KeyFrameClip(float[] samples, int n, float first, float dt) {
+    count = n;
+    start = first;
+    step = dt;
+    min = new float[3];
+    extent = new float[3];
+    for (int k = 0; k < 3; k++) {
+      float lo = Float.MAX_VALUE, hi = -Float.MAX_VALUE;
+      for (int i = 0; i < n; i++) {
+        lo = Math.min(lo, samples[8 * i + k]);
+        hi = Math.max(hi, samples[8 * i + k]);
+      }
+      min[k] = lo;
+      extent[k] = hi - lo;
+    }
+    positions = new short[3 * n];
+    rotations = new short[3 * n];
+    magnitudes = new short[n];
+    for (int i = 0; i < n; i++) {
+      int o = 8 * i;
+      for (int k = 0; k < 3; k++)
+        positions[3 * i + k] = (short) (extent[k] > 0 ? Math.round((samples[o + k] - min[k]) / extent[k] * 65535) : 0);
+      encode(samples[o + 3], samples[o + 4], samples[o + 5], samples[o + 6], rotations, 3 * i);
+      magnitudes[i] = toHalf(samples[o + 7]);
+    }
+  }
+
+  /**
+   * Returns the number of samples.
+   */
+  public int size() {
+    return count;
+  }
+
+  /**
+   * Returns the time of the first sample.
+   */
+  public float firstTime() {
+    return start;
+  }
+
+  /**
+   * Returns the time of the last sample.
+   */
+  public float lastTime() {
+    return start + (count - 1) * step;
+  }
+
+  /**
+   * Returns {@link #lastTime()} - {@link #firstTime()}.
+   */
+  public float duration() {
+    return (count - 1) * step;
+  }
+
+  /**
+   * Returns the approximate number of bytes taken by the clip samples.
+   */
+  public int bytes() {
+    return 14 * count;
+  }
+
+  /**
+   * Stores the clip world position (3 floats), orientation quaternion (4 floats, as
+   * {@code (x,y,z,w)}) and magnitude at {@code time} into {@code out[offset..offset+7]},
+   * the same layout used by
+   * {@link remixlab.dandelion.core.KeyFrameInterpolator#sample(float, float[], int)}.
+   * {@code time} is clamped to {@code [firstTime()..lastTime()]}. Positions and magnitudes
+   * are linearly interpolated between the two surrounding samples, and orientations are
+   * normalized linearly interpolated.
+   */
+  public void sample(float time, float[] out, int offset) {
+    float f = step > 0 ? (time - start) / step : 0;
+    if (f <= 0)
+      f = 0;
+    if (f >= count - 1)
+      f = count - 1;
+    int i = Math.min((int) f, count - 2);
+    if (i < 0) {
+      // single sample
+      decode(0, out, offset);
+      return;
+    }
+    float alpha = f - i;
+    float beta = 1 - alpha;
+    for (int k = 0; k < 3; k++) {
+      float a = (positions[3 * i + k] & 0xFFFF) / 65535.0f;
+      float b = (positions[3 * (i + 1) + k] & 0xFFFF) / 65535.0f;
+      out[offset + k] = min[k] + (beta * a + alpha * b) * extent[k];
+    }
+    float ax = component(i, 0), ay = component(i, 1), az = component(i, 2), aw = component(i, 3);
+    float bx = component(i + 1, 0), by = component(i + 1, 1), bz = component(i + 1, 2), bw = component(i + 1, 3);
+    // shortest path
+    if (ax * bx + ay * by + az * bz + aw * bw < 0)
+      alpha = -alpha;
+    float x = beta * ax + alpha * bx;
+    float y = beta * ay + alpha * by;
+    float z = beta * az + alpha * bz;
+    float w = beta * aw + alpha * bw;
+    float norm = (float) Math.sqrt(x * x + y * y + z * z + w * w);
+    out[offset + 3] = x / norm;
+    out[offset + 4] = y / norm;
+    out[offset + 5] = z / norm;
+    out[offset + 6] = w / norm;
+    alpha = Math.abs(alpha);
+    out[offset + 7] = beta * fromHalf(magnitudes[i]) + alpha * fromHalf(magnitudes[i + 1]);
+  }
+
+  /**
+   * Internal use. Decodes the {@code i}-th sample into {@code out[offset..offset+7]}.
+   */
+  protected void decode(int i, float[] out, int offset) {
+    for (int k = 0; k < 3; k++)
+      out[offset + k] = min[k] + (positions[3 * i + k] & 0xFFFF) / 65535.0f * extent[k];
+    for (int k = 0; k < 4; k++)
+      out[offset + 3 + k] = component(i, k);
+    out[offset + 7] = fromHalf(magnitudes[i]);
+  }
+
+  // SMALLEST THREE
+
+  /**
+   * Internal use. Encodes the unit quaternion {@code (x,y,z,w)} into
+   * {@code dst[o..o+2]}: the top bits of the first two shorts hold the index of the
+   * largest (absolute) component, which is dropped, and the remaining 15 bits of each
+   * short hold one of the other three components, quantized within
+   * {@code [-1/sqrt(2)..1/sqrt(2)]}.
+   */
+  protected static void encode(float x, float y, float z, float w, short[] dst, int o) {
+    float norm = (float) Math.sqrt(x * x + y * y + z * z + w * w);
+    float[] q = {x / norm, y / norm, z / norm, w / norm};
+    int largest = 0;
+    for (int k = 1; k < 4; k++)
+      if (Math.abs(q[k]) > Math.abs(q[largest]))
+        largest = k;
+    // q and -q are the same rotation: make the dropped component positive
+    float sign = q[largest] < 0 ? -1 : 1;
+    int j = 0;
+    int[] quantized = new int[3];
+    for (int k = 0; k < 4; k++)
+      if (k != largest) {
+        float v = Math.max(-1, Math.min(1, sign * q[k] * SQRT2));
+        quantized[j++] = Math.round((v * 0.5f + 0.5f) * 32767);
+      }
+    dst[o] = (short) (quantized[0] | ((largest >> 1) << 15));
+    dst[o + 1] = (short) (quantized[1] | ((largest & 1) << 15));
+    dst[o + 2] = (short) quantized[2];
+  }
+
+  /**
+   * Internal use. Returns the {@code k}-th component ({@code x, y, z, w}) of the
+   * {@code i}-th sample orientation quaternion.
+   */
+  protected float component(int i, int k) {
+    int o = 3 * i;
+    int largest = (((rotations[o] >> 15) & 1) << 1) | ((rotations[o + 1] >> 15) & 1);
+    float a = ((rotations[o] & 0x7FFF) / 32767.0f * 2 - 1) / SQRT2;
+    float b = ((rotations[o + 1] & 0x7FFF) / 32767.0f * 2 - 1) / SQRT2;
+    float c = ((rotations[o + 2] & 0x7FFF) / 32767.0f * 2 - 1) / SQRT2;
+    if (k == largest)
+      return (float) Math.sqrt(Math.max(0, 1 - a * a - b * b - c * c));
+    int j = k < largest ? k : k - 1;
+    return j == 0 ? a : j == 1 ? b : c;
+  }
+
+  // HALF FLOATS
+
+  /**
+   * Internal use. Returns the IEEE 754 half-float (binary16) closest to {@code value}.
+   */
+  protected static short toHalf(float value) {
+    int bits = Float.floatToIntBits(value);
+    int sign = (bits >>> 16) & 0x8000;
+    int exp = ((bits >>> 23) & 0xFF) - 127 + 15;
+    int mantissa = bits & 0x7FFFFF;
+    if (((bits >>> 23) & 0xFF) == 0xFF)
+      // infinity or NaN
+      return (short) (sign | 0x7C00 | (mantissa != 0 ? 0x200 : 0));
+    if (exp >= 0x1F)
+      // overflow
+      return (short) (sign | 0x7C00);
+    if (exp <= 0) {
+      if (exp < -10)
+        // underflow
+        return (short) sign;
+      // subnormal
+      mantissa |= 0x800000;
+      int shift = 14 - exp;
+      int half = mantissa >> shift;
+      if (((mantissa >> (shift - 1)) & 1) != 0)
+        half++;
+      return (short) (sign | half);
+    }
+    int half = sign | (exp << 10) | (mantissa >> 13);
+    // round to nearest
+    if ((mantissa & 0x1000) != 0)
+      half++;
+    return (short) half;
+  }
+
+  /**
+   * Internal use. Returns the float value of the IEEE 754 half-float {@code half}.
+   */
+  protected static float fromHalf(short half) {
+    int h = half & 0xFFFF;
+    int sign = (h & 0x8000) << 16;
+    int exp = (h >>> 10) & 0x1F;
+    int mantissa = h & 0x3FF;
+    if (exp == 0) {
+      if (mantissa == 0)
+        return Float.intBitsToFloat(sign);
+      // subnormal
+      float value = mantissa / 1024.0f * (1.0f / 16384.0f);
+      return sign != 0 ? -value : value;
+    }
+    if (exp == 0x1F)
+      return Float.intBitsToFloat(sign | 0x7F800000 | (mantissa << 13));
+    return Float.intBitsToFloat(sign | ((exp - 15 + 127) << 23) | (mantissa << 13));
+  }
+}
@@ -106,7 +106,7 @@ public class KeyFrameInterpolator implements Copyable {
   protected abstract class KeyFrame implements Copyable {
     @Override
     public int hashCode() {
-      return new HashCodeBuilder(17, 37).append(frame()).append(time()).toHashCode();
+      return new HashCodeBuilder(17, 37).append(frm).append(pos).append(ori).append(mag).append(time()).toHashCode();
     }
 
     @Override
@@ -119,47 +119,116 @@ public class KeyFrameInterpolator implements Copyable {
         return false;
 
       KeyFrame other = (KeyFrame) obj;
-      return new EqualsBuilder().append(frame(), other.frame()).append(time(), other.time()).isEquals();
+      return new EqualsBuilder().append(frm, other.frm).append(pos, other.pos).append(ori, other.ori)
+          .append(mag, other.mag).append(time(), other.time()).isEquals();
     }
 
     protected Vec tgPVec;
     protected float tm;
     protected GenericFrame frm;
+    // value keyFrames: world position, orientation and magnitude, used while there's no frm
+    protected Vec pos;
+    protected Rotation ori;
+    protected float mag;
+    // true when frm is a handle created by the interpolator, see frame()
+    protected boolean handle;
+    // position, orientation quaternion, magnitude and (2D) angle, see updateModifiedFrameValues()
+    protected float[] cache = new float[9];
+    // handle version the polyline was computed with, see polyline(Eye, float)
+    protected long polylineVersion = -1;
+    // handle version the path frames were computed with, see updatePath()
+    protected long pathVersion = -1;
 
     KeyFrame(GenericFrame fr, float t) {
       tm = t;
       frm = fr;
     }
 
+    KeyFrame(Vec p, Rotation o, float m, float t) {
+      tm = t;
+      pos = p.get();
+      ori = o.get();
+      mag = m;
+    }
+
     protected KeyFrame(KeyFrame otherKF) {
       this.tm = otherKF.tm;
-      this.frm = otherKF.frm.get();
+      if (otherKF.frm != null && !otherKF.handle)
+        this.frm = otherKF.frm.get();
+      else {
+        this.pos = otherKF.position();
+        this.ori = otherKF.orientation();
+        this.mag = otherKF.magnitude();
+      }
     }
 
     Vec position() {
-      return frame().position();
+      return frm == null ? pos.get() : frm.position();
     }
 
     Rotation orientation() {
-      return frame().orientation();
+      return frm == null ? ori.get() : frm.orientation();
     }
 
     float magnitude() {
-      return frame().magnitude();
+      return frm == null ? mag : frm.magnitude();
     }
 
     float time() {
       return tm;
     }
 
+    /**
+     * Returns the keyFrame frame. Value keyFrames (see
+     * {@link KeyFrameInterpolator#addKeyFrame(Vec, Rotation, float, float)}) get an
+     * interactive handle, created on demand.
+     */
     GenericFrame frame() {
+      if (frm == null) {
+        frm = createHandle(pos, ori, mag);
+        handle = true;
+      }
       return frm;
     }
 
+    /**
+     * Returns the keyFrame frame, or {@code null} if it's a value keyFrame which handle
+     * hasn't been created.
+     */
+    GenericFrame handle() {
+      return frm;
+    }
+
+    /**
+     * Drops the handle created by {@link #frame()} (if any), keeping its current state as
+     * the keyFrame value.
+     */
+    void releaseHandle() {
+      if (frm == null || !handle)
+        return;
+      pos = frm.position();
+      ori = frm.orientation();
+      mag = frm.magnitude();
+      frm = null;
+      handle = false;
+    }
+
     Vec tgP() {
       return tgPVec;
     }
 
+    void updateCache() {
+      Vec p = position();
+      cache[0] = p.vec[0];
+      cache[1] = p.vec[1];
+      cache[2] = p.vec[2];
+      Rotation o = orientation();
+      if (o instanceof Quat)
+        System.arraycopy(((Quat) o).quat, 0, cache, 3, 4);
+      cache[7] = magnitude();
+      cache[8] = o.angle();
+    }
+
     abstract void computeTangent(KeyFrame prev, KeyFrame next);
   }
 
@@ -173,6 +242,10 @@ public class KeyFrameInterpolator implements Copyable {
       super(fr, t);
     }
 
+    KeyFrame3D(Vec p, Rotation o, float m, float t) {
+      super(p, o, m, t);
+    }
+
     protected KeyFrame3D(KeyFrame3D other) {
       super(other);
     }
@@ -201,6 +274,10 @@ public class KeyFrameInterpolator implements Copyable {
       super(fr, t);
     }
 
+    KeyFrame2D(Vec p, Rotation o, float m, float t) {
+      super(p, o, m, t);
+    }
+
     protected KeyFrame2D(KeyFrame2D other) {
       super(other);
     }
@@ -223,6 +300,10 @@ public class KeyFrameInterpolator implements Copyable {
   private ListIterator<KeyFrame> currentFrame2;
   private ListIterator<KeyFrame> currentFrame3;
   protected List<Frame> path;
+  protected boolean pathFramesAreValid;
+  // path frames per segment, see updatePath()
+  protected static final int PATH_STEPS = 30;
+  private float[] pathSample = new float[7];
   // A s s o c i a t e d f r a m e
   private Frame mainFrame;
 
@@ -241,12 +322,61 @@ public class KeyFrameInterpolator implements Copyable {
   private boolean valuesAreValid;
   private boolean currentFrmValid;
   private boolean splineCacheIsValid;
+  private float[] times;
+  private boolean timesAreValid;
   private Vec pv1, pv2;
   // Option 2 (interpolate magnitude using a spline)
   // private Vec sv1, sv2;
 
   // S C E N E
   protected AbstractScene gScene;
+  protected KeyFrameScheduler scheduler;
+  private float[] squadTmp = new float[8];
+  private float[] interpolation = new float[8];
+  // unwrapped 2D angle of the last sample, see applySample()
+  private float sampledAngle;
+
+  // P O L Y L I N E
+  protected List<PathSegment> segments = new ArrayList<PathSegment>();
+  protected boolean segmentsAreValid;
+  protected float[] polyline = new float[0];
+  protected int polylineSize;
+  protected boolean[] dirty = new boolean[0];
+  protected Vec tmpVec = new Vec();
+  private float[] hermite = new float[9];
+  // S I M P L I F I C A T I O N
+  protected static final int SIMPLIFY_SAMPLES = 4;
+
+  // A R C L E N G T H
+  protected static final int ARC_LENGTH_STEPS = 16;
+  protected boolean constantSpeed;
+  protected Easing easing;
+  // cumulative path length and key frame time at each table entry, see arcLengthTime(float)
+  private float[] arcLengths, arcTimes;
+  private int arcSize;
+  private boolean arcLengthIsValid;
+
+  /**
+   * An easing profile for constant speed playback (see {@link #enableConstantSpeed()}),
+   * mapping the normalized interpolation time to the normalized traveled path length.
+   */
+  public interface Easing {
+    /**
+     * Returns the fraction of the path length (within {@code [0..1]}) to be traveled at the
+     * given fraction {@code t} (within {@code [0..1]}) of the path
+     * {@link KeyFrameInterpolator#duration()}.
+     */
+    float distance(float t);
+  }
+
+  /**
+   * Smooth start and stop (cubic smoothstep) {@link Easing} profile.
+   */
+  public static final Easing EASE_IN_OUT = new Easing() {
+    public float distance(float t) {
+      return t * t * (3 - 2 * t);
+    }
+  };
 
   /**
    * Convenience constructor that simply calls {@code this(scn, new Frame())}.
@@ -305,12 +435,15 @@ public class KeyFrameInterpolator implements Copyable {
     }
 
     this.setFrame(otherKFI.frame());
+    this.scheduler = otherKFI.scheduler;
 
     this.period = otherKFI.period;
     this.interpolationTm = otherKFI.interpolationTm;
     this.interpolationSpd = otherKFI.interpolationSpd;
     this.interpolationStrt = otherKFI.interpolationStrt;
     this.lpInterpolation = otherKFI.lpInterpolation;
+    this.constantSpeed = otherKFI.constantSpeed;
+    this.easing = otherKFI.easing;
     this.pathIsValid = otherKFI.pathIsValid;
     this.valuesAreValid = otherKFI.valuesAreValid;
     this.currentFrmValid = otherKFI.currentFrmValid;
@@ -349,6 +482,39 @@ public class KeyFrameInterpolator implements Copyable {
     return gScene;
   }
 
+  /**
+   * Returns the scheduler advancing this interpolator, or {@code null} if it's advanced by
+   * its own timer (default).
+   *
+   * @see #setScheduler(KeyFrameScheduler)
+   */
+  public KeyFrameScheduler scheduler() {
+    return scheduler;
+  }
+
+  /**
+   * Sets the scheduler that will advance this interpolator, together with all the other
+   * interpolators it holds, in a single pass per tick. Pass {@code null} to have the
+   * interpolator advanced by its own timer again. A running interpolation is restarted
+   * under the new scheduler.
+   * <p>
+   * Note that scheduled interpolators are advanced by the scheduler
+   * {@link remixlab.dandelion.core.KeyFrameScheduler#period()} (times the
+   * {@link #interpolationSpeed()}), instead of by the {@link #interpolationPeriod()}.
+   *
+   * @see remixlab.dandelion.core.AbstractScene#keyFrameScheduler()
+   */
+  public void setScheduler(KeyFrameScheduler s) {
+    if (s == scheduler)
+      return;
+    boolean started = interpolationStarted();
+    if (started)
+      stopInterpolation();
+    scheduler = s;
+    if (started)
+      startInterpolation();
+  }
+
   /**
    * Internal use. Updates the last frame path was updated. Called by
    * {@link #checkValidity()}.
@@ -597,8 +763,12 @@ public class KeyFrameInterpolator implements Copyable {
         setInterpolationTime(keyFrameList.get(0).time());
       if ((interpolationSpeed() < 0.0) && (interpolationTime() <= keyFrameList.get(0).time()))
         setInterpolationTime(keyFrameList.get(keyFrameList.size() - 1).time());
-      if (keyFrameList.size() > 1)
-        interpolationTimerTask.run(interpolationPeriod());
+      if (keyFrameList.size() > 1) {
+        if (scheduler != null)
+          scheduler.add(this);
+        else
+          interpolationTimerTask.run(interpolationPeriod());
+      }
       interpolationStrt = true;
       update();
     }
@@ -610,6 +780,8 @@ public class KeyFrameInterpolator implements Copyable {
    */
   public void stopInterpolation() {
     interpolationTimerTask.stop();
+    if (scheduler != null)
+      scheduler.remove(this);
     interpolationStrt = false;
   }
 
@@ -675,9 +847,92 @@ public class KeyFrameInterpolator implements Copyable {
     valuesAreValid = false;
     pathIsValid = false;
     currentFrmValid = false;
+    timesAreValid = false;
     resetInterpolation();
   }
 
+  /**
+   * Appends a new value keyFrame to the path, i.e., a compact (position, orientation,
+   * magnitude) record expressed in world coordinates, which won't change afterwards.
+   * <p>
+   * Same as {@link #addKeyFrame(Vec, Rotation, float, float)}, except that the
+   * {@link #keyFrameTime(int)} is set to the previous {@link #keyFrameTime(int)} plus one
+   * second (or 0.0 if there is no previous keyFrame).
+   */
+  public void addKeyFrame(Vec position, Rotation orientation, float magnitude) {
+    float time;
+
+    if (keyFrameList.isEmpty())
+      time = 0.0f;
+    else
+      time = keyFrameList.get(keyFrameList.size() - 1).time() + 1.0f;
+
+    addKeyFrame(position, orientation, magnitude, time);
+  }
+
+  /**
+   * Appends a new value keyFrame to the path, with its associated {@code time} (in
+   * seconds). The {@code position}, {@code orientation} and {@code magnitude} are given in
+   * world coordinates and are copied.
+   * <p>
+   * Contrary to {@link #addKeyFrame(GenericFrame, float)}, no frame is kept: sampling the
+   * path only reads the stored values. An interactive frame handle is only created when
+   * the keyFrame is edited, i.e., when {@link #keyFrame(int)} is called (see
+   * {@link #releaseHandles()}).
+   */
+  public void addKeyFrame(Vec position, Rotation orientation, float magnitude, float time) {
+    if (position == null || orientation == null)
+      return;
+
+    if (keyFrameList.isEmpty())
+      interpolationTm = time;
+
+    if ((!keyFrameList.isEmpty()) && (keyFrameList.get(keyFrameList.size() - 1).time() > time))
+      System.out.println("Error in KeyFrameInterpolator.addKeyFrame: time is not monotone");
+    else {
+      if (gScene.is3D())
+        keyFrameList.add(new KeyFrame3D(position, orientation, magnitude, time));
+      else
+        keyFrameList.add(new KeyFrame2D(position, orientation, magnitude, time));
+    }
+
+    valuesAreValid = false;
+    pathIsValid = false;
+    currentFrmValid = false;
+    timesAreValid = false;
+    resetInterpolation();
+  }
+
+  /**
+   * Internal use. Creates the interactive handle of a value keyFrame: a detached copy of
+   * the interpolated {@link #frame()} (when it's a
+   * {@link remixlab.dandelion.core.GenericFrame}, so that, e.g., eye paths get eye frame
+   * handles), or a detached generic-frame otherwise, set at the given world values.
+   */
+  protected GenericFrame createHandle(Vec position, Rotation orientation, float magnitude) {
+    GenericFrame handle;
+    if (frame() instanceof GenericFrame)
+      handle = ((GenericFrame) frame()).detach();
+    else {
+      handle = new GenericFrame(gScene);
+      gScene.pruneBranch(handle);
+    }
+    handle.setPosition(position.get());
+    handle.setOrientation(orientation.get());
+    handle.setMagnitude(magnitude);
+    return handle;
+  }
+
+  /**
+   * Drops the interactive handles of the value keyFrames (see
+   * {@link #addKeyFrame(Vec, Rotation, float, float)}), once they're done being edited,
+   * keeping their current state.
+   */
+  public void releaseHandles() {
+    for (KeyFrame element : keyFrameList)
+      element.releaseHandle();
+  }
+
   /**
    * Remove KeyFrame according to {@code index} in the list and
    * {@link #stopInterpolation()} if {@link #interpolationStarted()}. If
@@ -689,11 +944,303 @@ public class KeyFrameInterpolator implements Copyable {
     valuesAreValid = false;
     pathIsValid = false;
     currentFrmValid = false;
+    timesAreValid = false;
     if (interpolationStarted())
       stopInterpolation();
+    segmentsAreValid = false;
+    pathFramesAreValid = false;
     KeyFrame kf = keyFrameList.remove(index);
-    gScene.pruneBranch(kf.frm);
+    if (kf.handle() != null)
+      gScene.pruneBranch(kf.handle());
+    setInterpolationTime(firstTime());
+  }
+
+  /**
+   * Removes the keyFrames which don't significantly contribute to the path shape, e.g.,
+   * the nearly collinear keyFrames of a path recorded at a high frequency. Returns the
+   * number of removed keyFrames. The first and last keyFrames are always kept.
+   * <p>
+   * Candidate removals are first chosen by a Douglas-Peucker pass on the keyFrames (see
+   * {@link #simplificationError(int, int, int, float, float)}). Since removing keyFrames
+   * changes the tangents of their remaining neighbors, the candidates are then verified
+   * against the spline actually rebuilt from the remaining keyFrames (Hermite positions
+   * and squad orientations, with recomputed tangents). The original path is sampled
+   * {@link #SIMPLIFY_SAMPLES} times per original segment (i.e., at the keyFrame times and
+   * in between) and each sample is compared against the rebuilt segment spanning it:
+   * <ol>
+   * <li>Position: distance to the rebuilt path (i.e., the path shape is kept within
+   * {@code positionTolerance}, in scene units, although it may be traveled at a slightly
+   * different pace).</li>
+   * <li>Orientation: angle to the rebuilt orientation at the same time, within
+   * {@code angleTolerance} (in radians).</li>
+   * </ol>
+   * While some rebuilt segment exceeds the tolerances, one of the keyFrames removed from it
+   * is restored. The tolerances are thus met at those samples (not strictly in between
+   * them). Paths traveled at constant speed (see {@link #enableConstantSpeed()}) are
+   * compared at the same keyFrame time, not at the same arc length. The candidates pass
+   * takes {@code O(n log n)} time on average and each verification round {@code O(n)}.
+   * <p>
+   * Just as {@link #removeKeyFrame(int)}, the interpolation is stopped if it was started.
+   */
+  public int simplify(float positionTolerance, float angleTolerance) {
+    int n = keyFrameList.size();
+    if (n < 3)
+      return 0;
+    this.checkValidity();
+    if (!valuesAreValid)
+      updateModifiedFrameValues();
+    boolean[] keep = new boolean[n];
+    keep[0] = keep[n - 1] = true;
+    // pending [first, last] ranges
+    int[] stack = new int[2 * n];
+    int top = 0;
+    stack[top++] = 0;
+    stack[top++] = n - 1;
+    while (top > 0) {
+      int last = stack[--top];
+      int first = stack[--top];
+      int farthest = -1;
+      float maxError = 1;
+      for (int i = first + 1; i < last; i++) {
+        float error = simplificationError(first, i, last, positionTolerance, angleTolerance);
+        if (error > maxError) {
+          maxError = error;
+          farthest = i;
+        }
+      }
+      if (farthest < 0)
+        continue;
+      keep[farthest] = true;
+      if (farthest - first > 1) {
+        stack[top++] = first;
+        stack[top++] = farthest;
+      }
+      if (last - farthest > 1) {
+        stack[top++] = farthest;
+        stack[top++] = last;
+      }
+    }
+    while (restoreKeyFrames(keep, positionTolerance, angleTolerance))
+      ;
+    List<KeyFrame> kept = new ArrayList<KeyFrame>();
+    for (int i = 0; i < n; i++)
+      if (keep[i])
+        kept.add(keyFrameList.get(i));
+      else if (keyFrameList.get(i).handle() != null)
+        gScene.pruneBranch(keyFrameList.get(i).handle());
+    int removed = n - kept.size();
+    if (removed == 0)
+      return 0;
+    if (interpolationStarted())
+      stopInterpolation();
+    keyFrameList.clear();
+    keyFrameList.addAll(kept);
+    valuesAreValid = false;
+    pathIsValid = false;
+    currentFrmValid = false;
+    timesAreValid = false;
+    segmentsAreValid = false;
+    pathFramesAreValid = false;
     setInterpolationTime(firstTime());
+    return removed;
+  }
+
+  /**
+   * Internal use. Compares the current path against the one rebuilt from the {@code keep}
+   * keyFrames (see {@link #simplify(float, float)}) and restores a keyFrame for each
+   * segment of the rebuilt path exceeding the tolerances. Returns {@code true} if some
+   * keyFrame was restored.
+   */
+  protected boolean restoreKeyFrames(boolean[] keep, float positionTolerance, float angleTolerance) {
+    int n = keyFrameList.size();
+    int m = 0;
+    int[] index = new int[n];
+    for (int i = 0; i < n; i++)
+      if (keep[i])
+        index[m++] = i;
+    if (m == n)
+      return false;
+    boolean threeD = gScene.is3D();
+    // tangents of the rebuilt path, computed as in updateModifiedFrameValues()
+    float[] tgP = new float[3 * m];
+    float[] tgQ = threeD ? new float[4 * m] : null;
+    for (int j = 0; j < m; j++) {
+      float[] prev = keyFrameList.get(index[j > 0 ? j - 1 : j]).cache;
+      float[] cur = keyFrameList.get(index[j]).cache;
+      float[] next = keyFrameList.get(index[j < m - 1 ? j + 1 : j]).cache;
+      for (int k = 0; k < 3; k++)
+        tgP[3 * j + k] = 0.5f * (next[k] - prev[k]);
+      if (threeD) {
+        Quat tg = Quat.squadTangent(new Quat(prev[3], prev[4], prev[5], prev[6], false),
+            new Quat(cur[3], cur[4], cur[5], cur[6], false), new Quat(next[3], next[4], next[5], next[6], false));
+        System.arraycopy(tg.quat, 0, tgQ, 4 * j, 4);
+      }
+    }
+    // the rebuilt path, as a polyline of SIMPLIFY_SAMPLES * SIMPLIFY_SAMPLES edges per segment
+    int edges = SIMPLIFY_SAMPLES * SIMPLIFY_SAMPLES;
+    float[] polyline = new float[3 * ((m - 1) * edges + 1)];
+    float[] original = new float[7], rebuilt = new float[7];
+    for (int j = 0; j < m - 1; j++)
+      for (int e = j == 0 ? 0 : 1; e <= edges; e++) {
+        evaluate(keyFrameList.get(index[j]).cache, keyFrameList.get(index[j + 1]).cache, tgP, 3 * j, tgP,
+            3 * (j + 1), tgQ, 4 * j, tgQ, 4 * (j + 1), e / (float) edges, rebuilt);
+        System.arraycopy(rebuilt, 0, polyline, 3 * (j * edges + e), 3);
+      }
+    // worst error and its original segment, per rebuilt segment
+    float[] worst = new float[m];
+    int[] worstSegment = new int[m];
+    int j = 0;
+    for (int i = 0; i < n - 1; i++) {
+      KeyFrame a = keyFrameList.get(i), b = keyFrameList.get(i + 1);
+      while (j < m - 2 && index[j + 1] <= i)
+        j++;
+      KeyFrame ra = keyFrameList.get(index[j]), rb = keyFrameList.get(index[j + 1]);
+      float rdt = rb.time() - ra.time();
+      for (int step = 0; step < SIMPLIFY_SAMPLES; step++) {
+        float u = step / (float) SIMPLIFY_SAMPLES;
+        evaluate(a.cache, b.cache, a.tgP().vec, 0, b.tgP().vec, 0, threeD ? ((KeyFrame3D) a).tgQ().quat : null, 0,
+            threeD ? ((KeyFrame3D) b).tgQ().quat : null, 0, u, original);
+        // position: distance to the rebuilt segment
+        float position = Float.MAX_VALUE;
+        for (int e = j * edges; e < (j + 1) * edges; e++)
+          position = Math.min(position, distanceToEdge(original, polyline, 3 * e));
+        // orientation: at the same time
+        float time = Util.lerp(a.time(), b.time(), u);
+        float ru = Util.zero(rdt) ? 0 : (time - ra.time()) / rdt;
+        evaluate(ra.cache, rb.cache, tgP, 3 * j, tgP, 3 * (j + 1), tgQ, 4 * j, tgQ, 4 * (j + 1), ru, rebuilt);
+        float angle;
+        if (threeD) {
+          float dot = original[3] * rebuilt[3] + original[4] * rebuilt[4] + original[5] * rebuilt[5]
+              + original[6] * rebuilt[6];
+          angle = 2 * (float) Math.acos(Math.min(1, Math.abs(dot)));
+        } else
+          angle = Math.abs(original[3] - rebuilt[3]);
+        float error = relativeError(position, angle, positionTolerance, angleTolerance);
+        if (error > worst[j]) {
+          worst[j] = error;
+          worstSegment[j] = i;
+        }
+      }
+    }
+    boolean restored = false;
+    for (j = 0; j < m - 1; j++) {
+      if (worst[j] <= 1)
+        continue;
+      // split the segment at its middle removed keyFrame, which tends to even out the
+      // segments lengths (the tangents assume similar neighbor segments), or else restore
+      // the removed keyFrame closest to the worst sample
+      int middle = (index[j] + index[j + 1]) / 2;
+      int i = middle > index[j] ? middle : worstSegment[j];
+      for (int d = 0; d < n; d++) {
+        if (i + d < n && !keep[i + d]) {
+          keep[i + d] = true;
+          restored = true;
+          break;
+        }
+        if (i - d - 1 >= 0 && !keep[i - d - 1]) {
+          keep[i - d - 1] = true;
+          restored = true;
+          break;
+        }
+      }
+    }
+    return restored;
+  }
+
+  /**
+   * Internal use. Returns the distance from the point {@code p[0..2]} to the edge joining
+   * the points {@code polyline[o..o+2]} and {@code polyline[o+3..o+5]}.
+   */
+  protected static float distanceToEdge(float[] p, float[] polyline, int o) {
+    float ex = polyline[o + 3] - polyline[o];
+    float ey = polyline[o + 4] - polyline[o + 1];
+    float ez = polyline[o + 5] - polyline[o + 2];
+    float px = p[0] - polyline[o], py = p[1] - polyline[o + 1], pz = p[2] - polyline[o + 2];
+    float squaredLength = ex * ex + ey * ey + ez * ez;
+    float t = squaredLength > 0 ? Math.max(0, Math.min(1, (px * ex + py * ey + pz * ez) / squaredLength)) : 0;
+    px -= t * ex;
+    py -= t * ey;
+    pz -= t * ez;
+    return (float) Math.sqrt(px * px + py * py + pz * pz);
+  }
+
+  /**
+   * Internal use. Evaluates the spline segment joining the keyFrames which cached values
+   * are {@code ca} and {@code cb}, with position tangents
+   * {@code tpa[pa..pa+2]} and {@code tpb[pb..pb+2]} and (in 3D) orientation tangents
+   * {@code tqa[qa..qa+3]} and {@code tqb[qb..qb+3]}, at {@code u}, the same way
+   * {@link #sample(float, float[], int)} does. Stores the position into {@code out[0..2]}
+   * and the orientation quaternion (3D) or angle (2D) into {@code out[3..6]} ({@code out[3]}).
+   */
+  protected void evaluate(float[] ca, float[] cb, float[] tpa, int pa, float[] tpb, int pb, float[] tqa, int qa,
+                          float[] tqb, int qb, float u, float[] out) {
+    for (int k = 0; k < 3; k++) {
+      // same polynomial as in updateSplineCache()
+      float delta = cb[k] - ca[k];
+      float t1 = tpa[pa + k], t2 = tpb[pb + k];
+      float v1 = 3.0f * delta - 2.0f * t1 - t2;
+      float v2 = -2.0f * delta + t1 + t2;
+      out[k] = ca[k] + (t1 + (v1 + v2 * u) * u) * u;
+    }
+    if (tqa != null) {
+      slerp(ca, 3, cb, 3, u, true, squadTmp, 0);
+      slerp(tqa, qa, tqb, qb, u, false, squadTmp, 4);
+      slerp(squadTmp, 0, squadTmp, 4, 2.0f * u * (1.0f - u), false, out, 3);
+    } else
+      out[3] = Util.lerp(ca[8], cb[8], u);
+  }
+
+  /**
+   * Internal use. Returns the largest of the {@code position} and {@code angle} errors,
+   * relative to their tolerances (a zero tolerance only admits a zero error).
+   */
+  protected static float relativeError(float position, float angle, float positionTolerance, float angleTolerance) {
+    float error = positionTolerance > 0 ? position / positionTolerance : (Util.zero(position) ? 0 : Float.MAX_VALUE);
+    if (angleTolerance > 0)
+      error = Math.max(error, angle / angleTolerance);
+    else if (!Util.zero(angle))
+      error = Float.MAX_VALUE;
+    return error;
+  }
+
+  /**
+   * Internal use. Returns the deviation of keyFrame {@code i} from the spline segment
+   * joining keyFrames {@code first} and {@code last}, relative to the given tolerances,
+   * i.e., the keyFrame is a removal candidate if the returned value is not greater than 1.
+   * <p>
+   * This is a heuristic estimate, used to choose the candidates of
+   * {@link #simplify(float, float)}: the position is evaluated on a Hermite curve using
+   * the end keyFrames current tangents (scaled to the range) and the orientation on a
+   * slerp, only at the keyFrame time. The candidates are then verified against the
+   * actually rebuilt path (see {@link #restoreKeyFrames(boolean[], float, float)}).
+   */
+  protected float simplificationError(int first, int i, int last, float positionTolerance, float angleTolerance) {
+    KeyFrame a = keyFrameList.get(first), k = keyFrameList.get(i), b = keyFrameList.get(last);
+    float dt = b.time() - a.time();
+    float u = Util.zero(dt) ? (i - first) / (float) (last - first) : (k.time() - a.time()) / dt;
+    float[] ca = a.cache, ck = k.cache, cb = b.cache;
+    // the end tangents span last - first of the original segments
+    float[] tga = a.tgP().vec, tgb = b.tgP().vec;
+    float span = last - first;
+    float position = 0;
+    for (int j = 0; j < 3; j++) {
+      // same polynomial as in updateSplineCache()
+      float delta = cb[j] - ca[j];
+      float t1 = tga[j] * span, t2 = tgb[j] * span;
+      float v1 = 3.0f * delta - 2.0f * t1 - t2;
+      float v2 = -2.0f * delta + t1 + t2;
+      float d = ca[j] + (t1 + (v1 + v2 * u) * u) * u - ck[j];
+      position += d * d;
+    }
+    position = (float) Math.sqrt(position);
+    float angle;
+    if (gScene.is3D()) {
+      slerp(ca, 3, cb, 3, u, true, squadTmp, 0);
+      float dot = Math.abs(squadTmp[0] * ck[3] + squadTmp[1] * ck[4] + squadTmp[2] * ck[5] + squadTmp[3] * ck[6]);
+      angle = 2 * (float) Math.acos(Math.min(1, dot));
+    } else
+      angle = Math.abs(Util.lerp(ca[8], cb[8], u) - ck[8]);
+    return relativeError(position, angle, positionTolerance, angleTolerance);
   }
 
   /**
@@ -702,12 +1249,17 @@ public class KeyFrameInterpolator implements Copyable {
   public void deletePath() {
     stopInterpolation();
     keyFrameList.clear();
+    segmentsAreValid = false;
+    pathFramesAreValid = false;
     pathIsValid = false;
     valuesAreValid = false;
     currentFrmValid = false;
+    timesAreValid = false;
   }
 
   protected void updateModifiedFrameValues() {
+    for (KeyFrame element : keyFrameList)
+      element.updateCache();
     KeyFrame kf;
     KeyFrame prev = keyFrameList.get(0);
     kf = keyFrameList.get(0);
@@ -724,6 +1276,7 @@ public class KeyFrameInterpolator implements Copyable {
       kf = next;
     }
     valuesAreValid = true;
+    arcLengthIsValid = false;
   }
 
   protected List<KeyFrame> keyFrames() {
@@ -745,73 +1298,104 @@ public class KeyFrameInterpolator implements Copyable {
 
   /**
    * Intenal use. Call {@link #checkValidity()} and if path is not valid recomputes it.
+   * <p>
+   * The path holds {@link #PATH_STEPS} frames per segment, followed by the last keyFrame
+   * one. Only the frames of the segments affected by a modified or appended keyFrame
+   * (tracked through the handle versions, as in {@link #polyline(Eye, float)}) are
+   * recomputed, in place.
    */
   protected void updatePath() {
     checkValidity();
     if (!pathIsValid) {
-      path.clear();
-      int nbSteps = 30;
-
-      if (keyFrameList.isEmpty())
+      int n = keyFrameList.size();
+      if (n == 0) {
+        path.clear();
         return;
-
-      if (!valuesAreValid)
-        updateModifiedFrameValues();
-
-      if (keyFrameList.get(0) == keyFrameList.get(keyFrameList.size() - 1))
-        path.add(
-            new Frame(keyFrameList.get(0).position(), keyFrameList.get(0).orientation(), keyFrameList.get(0).magnitude()));
-      else {
-        KeyFrame[] kf = new KeyFrame[4];
-        kf[0] = keyFrameList.get(0);
-        kf[1] = kf[0];
-
-        int index = 1;
-        kf[2] = (index < keyFrameList.size()) ? keyFrameList.get(index) : null;
-        index++;
-        kf[3] = (index < keyFrameList.size()) ? keyFrameList.get(index) : null;
-
-        while (kf[2] != null) {
-          Vec pdiff = Vec.subtract(kf[2].position(), kf[1].position());
-          Vec pvec1 = Vec.add(Vec.multiply(pdiff, 3.0f), Vec.multiply(kf[1].tgP(), (-2.0f)));
-          pvec1 = Vec.subtract(pvec1, kf[2].tgP());
-          Vec pvec2 = Vec.add(Vec.multiply(pdiff, (-2.0f)), kf[1].tgP());
-          pvec2 = Vec.add(pvec2, kf[2].tgP());
-
-          for (int step = 0; step < nbSteps; ++step) {
-            Frame frame = new Frame();
-            float alpha = step / (float) nbSteps;
-            frame.setPosition(Vec.add(kf[1].position(),
-                Vec.multiply(Vec.add(kf[1].tgP(), Vec.multiply(Vec.add(pvec1, Vec.multiply(pvec2, alpha)), alpha)), alpha)));
-            if (gScene.is3D()) {
-              frame.setOrientation(
-                  Quat.squad((Quat) kf[1].orientation(), ((KeyFrame3D) kf[1]).tgQ(), ((KeyFrame3D) kf[2]).tgQ(),
-                      (Quat) kf[2].orientation(), alpha));
-            } else {
-              // linear interpolation
-              float start = kf[1].orientation().angle();
-              float stop = kf[2].orientation().angle();
-              frame.setOrientation(new Rot(start + (stop - start) * alpha));
-            }
-            frame.setMagnitude(Util.lerp(kf[1].magnitude(), kf[2].magnitude(), alpha));
-            path.add(frame.get());
-          }
-
-          // Shift
-          kf[0] = kf[1];
-          kf[1] = kf[2];
-          kf[2] = kf[3];
-
-          index++;
-          kf[3] = (index < keyFrameList.size()) ? keyFrameList.get(index) : null;
+      }
+      if (!pathFramesAreValid) {
+        for (KeyFrame element : keyFrameList)
+          element.pathVersion = -1;
+        pathFramesAreValid = true;
+      }
+      updateModifiedKeyFrames(true);
+      int size = (n - 1) * PATH_STEPS + 1;
+      while (path.size() > size)
+        path.remove(path.size() - 1);
+      while (path.size() < size)
+        path.add(new Frame(gScene.is3D()));
+      for (int s = 0; s < n - 1; s++) {
+        boolean affected = false;
+        for (int i = Math.max(0, s - 1); i <= Math.min(n - 1, s + 2) && !affected; i++)
+          affected = dirty[i];
+        if (!affected)
+          continue;
+        KeyFrame kf1 = keyFrameList.get(s), kf2 = keyFrameList.get(s + 1);
+        float[] tq1 = gScene.is3D() ? ((KeyFrame3D) kf1).tgQ().quat : null;
+        float[] tq2 = gScene.is3D() ? ((KeyFrame3D) kf2).tgQ().quat : null;
+        for (int step = 0; step < PATH_STEPS; ++step) {
+          float alpha = step / (float) PATH_STEPS;
+          evaluate(kf1.cache, kf2.cache, kf1.tgP().vec, 0, kf2.tgP().vec, 0, tq1, 0, tq2, 0, alpha, pathSample);
+          setPathFrame(path.get(s * PATH_STEPS + step), pathSample, Util.lerp(kf1.cache[7], kf2.cache[7], alpha));
         }
-        // Add last KeyFrame
-        path.add(new Frame(kf[1].position(), kf[1].orientation(), kf[1].magnitude()));
       }
+      // last keyFrame
+      float[] c = keyFrameList.get(n - 1).cache;
+      System.arraycopy(c, 0, pathSample, 0, 3);
+      if (gScene.is3D())
+        System.arraycopy(c, 3, pathSample, 3, 4);
+      else
+        pathSample[3] = c[8];
+      setPathFrame(path.get(size - 1), pathSample, c[7]);
       pathIsValid = true;
     }
   }
 
+  /**
+   * Internal use. Sets the path {@code frame} from the position and orientation stored in
+   * {@code sample}, as left by {@code evaluate()}, and the given {@code magnitude}.
+   */
+  protected void setPathFrame(Frame frame, float[] sample, float magnitude) {
+    frame.translation().set(sample[0], sample[1], sample[2]);
+    if (gScene.is3D())
+      System.arraycopy(sample, 3, ((Quat) frame.rotation()).quat, 0, 4);
+    else
+      frame.setRotation(new Rot(sample[3]));
+    frame.setScaling(magnitude);
+  }
+
+  /**
+   * Internal use. Flags into {@code dirty} the keyFrames modified or appended since the
+   * last {@link #updatePath()} (if {@code path} is {@code true}) or
+   * {@link #polyline(Eye, float)} call, i.e., which handle version changed, and updates
+   * their cached values, together with the tangents depending on them.
+   */
+  protected void updateModifiedKeyFrames(boolean path) {
+    int n = keyFrameList.size();
+    if (dirty.length < n)
+      dirty = new boolean[Math.max(n, 2 * dirty.length)];
+    boolean any = false;
+    for (int i = 0; i < n; i++) {
+      KeyFrame kf = keyFrameList.get(i);
+      long v = kf.handle() == null ? 0 : kf.handle().version();
+      dirty[i] = v != (path ? kf.pathVersion : kf.polylineVersion);
+      if (dirty[i]) {
+        if (path)
+          kf.pathVersion = v;
+        else
+          kf.polylineVersion = v;
+        kf.updateCache();
+        any = true;
+      }
+    }
+    // tangents depend on the previous and next keyFrames
+    if (any)
+      for (int i = 0; i < n; i++)
+        if (dirty[i] || (i > 0 && dirty[i - 1]) || (i < n - 1 && dirty[i + 1])) {
+          KeyFrame kf = keyFrameList.get(i);
+          kf.computeTangent(keyFrameList.get(i > 0 ? i - 1 : i), keyFrameList.get(i < n - 1 ? i + 1 : i));
+        }
+  }
+
   /**
    * Internal use. Calls {@link #invalidateValues()} if a keyFrame (frame) defining the
    * path was recently modified.
@@ -819,7 +1403,8 @@ public class KeyFrameInterpolator implements Copyable {
   protected void checkValidity() {
     boolean flag = false;
     for (KeyFrame element : keyFrameList) {
-      if (element.frame().lastUpdate() > lastUpdate()) {
+      // value keyFrames without handle never change
+      if (element.handle() != null && element.handle().lastUpdate() > lastUpdate()) {
         flag = true;
         break;
       }
@@ -838,7 +1423,9 @@ public class KeyFrameInterpolator implements Copyable {
    * <p>
    * <b>Note:</b> If this keyFrame was defined using a reference to a Frame (see
    * {@link #addKeyFrame(GenericFrame, float)} the current referenced Frame state is
-   * returned.
+   * returned. If it's a value keyFrame (see
+   * {@link #addKeyFrame(Vec, Rotation, float, float)}) its interactive handle is returned
+   * (and created if needed).
    */
   public GenericFrame keyFrame(int index) {
     return keyFrameList.get(index).frame();
@@ -897,54 +1484,69 @@ public class KeyFrameInterpolator implements Copyable {
       return keyFrameList.get(keyFrameList.size() - 1).time();
   }
 
+  /**
+   * Internal use. Returns the key frame times as a sorted array, rebuilt only when the
+   * key frames change.
+   */
+  protected float[] keyFrameTimes() {
+    if (!timesAreValid) {
+      if (times == null || times.length < keyFrameList.size())
+        times = new float[Math.max(16, keyFrameList.size())];
+      for (int i = 0; i < keyFrameList.size(); i++)
+        times[i] = keyFrameList.get(i).time();
+      timesAreValid = true;
+    }
+    return times;
+  }
+
+  /**
+   * Internal use. Updates the key frames surrounding {@code time}. Sequential playback
+   * keeps (or advances to the next) current key frame interval, whereas arbitrary jumps
+   * binary search the {@link #keyFrameTimes()}.
+   */
   protected void updateCurrentKeyFrameForTime(float time) {
     // Assertion: times are sorted in monotone order.
     // Assertion: keyFrame_ is not empty
 
     // TODO: Special case for loops when closed path is implemented !!
-    if (!currentFrmValid)
-      // Recompute everything from scratch
-      currentFrame1 = keyFrameList.listIterator();
-
-    // currentFrame_[1]->peekNext() <---> keyFr.get(currentFrame1.nextIndex());
-    while (keyFrameList.get(currentFrame1.nextIndex()).time() > time) {
-      currentFrmValid = false;
-      if (!currentFrame1.hasPrevious())
-        break;
-      currentFrame1.previous();
+    float[] t = keyFrameTimes();
+    int n = keyFrameList.size();
+    if (currentFrmValid) {
+      int i1 = currentFrame1.nextIndex();
+      int i2 = currentFrame2.nextIndex();
+      // same interval
+      if (i1 < i2 ? t[i1] <= time && time <= t[i2] : (i2 == n - 1 && time >= t[i2]) || (i2 == 0 && time <= t[0]))
+        return;
+      // next interval
+      if (i2 + 1 < n && t[i2] < time && time <= t[i2 + 1]) {
+        setCurrentKeyFrames(i2 + 1, time);
+        return;
+      }
     }
-
-    if (!currentFrmValid)
-      currentFrame2 = keyFrameList.listIterator(currentFrame1.nextIndex());
-
-    while (keyFrameList.get(currentFrame2.nextIndex()).time() < time) {
-      currentFrmValid = false;
-
-      if (!currentFrame2.hasNext())
-        break;
-
-      currentFrame2.next();
+    // binary search the first key frame which time is not less than time
+    int lo = 0, hi = n;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (t[mid] < time)
+        lo = mid + 1;
+      else
+        hi = mid;
     }
+    setCurrentKeyFrames(Math.min(lo, n - 1), time);
+  }
 
-    if (!currentFrmValid) {
-      currentFrame1 = keyFrameList.listIterator(currentFrame2.nextIndex());
-
-      if ((currentFrame1.hasPrevious()) && (time < keyFrameList.get(currentFrame2.nextIndex()).time()))
-        currentFrame1.previous();
-
-      currentFrame0 = keyFrameList.listIterator(currentFrame1.nextIndex());
-
-      if (currentFrame0.hasPrevious())
-        currentFrame0.previous();
-
-      currentFrame3 = keyFrameList.listIterator(currentFrame2.nextIndex());
-
-      if (currentFrame3.hasNext())
-        currentFrame3.next();
-
-      currentFrmValid = true;
-      splineCacheIsValid = false;
-    }
+  /**
+   * Internal use. Sets the current key frames from the index {@code i2} of the first key
+   * frame which time is not less than {@code time} (or the last one).
+   */
+  protected void setCurrentKeyFrames(int i2, float time) {
+    int i1 = (i2 > 0 && time < keyFrameTimes()[i2]) ? i2 - 1 : i2;
+    currentFrame2 = keyFrameList.listIterator(i2);
+    currentFrame1 = keyFrameList.listIterator(i1);
+    currentFrame0 = keyFrameList.listIterator(Math.max(i1 - 1, 0));
+    currentFrame3 = keyFrameList.listIterator(Math.min(i2 + 1, keyFrameList.size()));
+    currentFrmValid = true;
+    splineCacheIsValid = false;
   }
 
   protected void updateSplineCache() {
@@ -966,47 +1568,469 @@ public class KeyFrameInterpolator implements Copyable {
    * {@link #frame()} state, use {@link #setInterpolationTime(float)} instead.
    */
   public void interpolateAtTime(float time) {
+    // sample() doesn't allocate, only the frame setters do
+    if (sample(time, interpolation, 0))
+      applySample(interpolation, 0);
+  }
+
+  /**
+   * Internal use. Sets the {@link #frame()} from the last sample, stored at
+   * {@code s[offset..offset+7]} (see {@link #sample(float, float[], int)}): its position
+   * and rotation are set taking into account the frame constraint, as in
+   * {@link #interpolateAtTime(float)}. In 2D the rotation angle is the (unwrapped) lerped
+   * one, not the one of the sampled quaternion, which is kept within {@code [-pi..pi]}.
+   */
+  protected void applySample(float[] s, int offset) {
+    frame().setPositionWithConstraint(new Vec(s[offset], s[offset + 1], s[offset + 2]));
+    if (gScene.is3D())
+      frame().setRotationWithConstraint(new Quat(s[offset + 3], s[offset + 4], s[offset + 5], s[offset + 6]));
+    else
+      frame().setRotationWithConstraint(new Rot(sampledAngle));
+    frame().setMagnitude(s[offset + 7]);
+  }
+
+  // A R C L E N G T H
+
+  /**
+   * Returns {@code true} if the path is traveled at constant speed (or according to the
+   * {@link #easing()} profile, if any) and {@code false} (default) if it's traveled
+   * according to the {@link #keyFrameTime(int)}s.
+   *
+   * @see #enableConstantSpeed()
+   */
+  public boolean isConstantSpeedEnabled() {
+    return constantSpeed;
+  }
+
+  /**
+   * Makes the interpolation travel the path at constant speed, no matter the keyFrames
+   * spacing: the path is traveled from {@link #firstTime()} to {@link #lastTime()}, but
+   * the traveled path length (instead of the traveled keyFrames) is proportional to the
+   * elapsed {@link #interpolationTime()}. Set an {@link #easing()} profile to accelerate
+   * or decelerate along the path.
+   * <p>
+   * The path length is tabulated once, each time the keyFrames change, so that each
+   * interpolation step only performs a binary search on the table and doesn't allocate
+   * any object.
+   *
+   * @see #disableConstantSpeed()
+   * @see #setEasing(Easing)
+   */
+  public void enableConstantSpeed() {
+    constantSpeed = true;
+    currentFrmValid = false;
+  }
+
+  /**
+   * Travels the path according to the {@link #keyFrameTime(int)}s (default).
+   *
+   * @see #enableConstantSpeed()
+   */
+  public void disableConstantSpeed() {
+    constantSpeed = false;
+    currentFrmValid = false;
+  }
+
+  /**
+   * Returns the constant speed {@link Easing} profile, or {@code null} (default) if the
+   * speed is actually constant.
+   *
+   * @see #enableConstantSpeed()
+   */
+  public Easing easing() {
+    return easing;
+  }
+
+  /**
+   * Sets the {@link #easing()} profile, e.g., {@link #EASE_IN_OUT}. Only taken into
+   * account when {@link #isConstantSpeedEnabled()}.
+   */
+  public void setEasing(Easing profile) {
+    easing = profile;
+  }
+
+  /**
+   * Returns the (approximated) path position curve length.
+   */
+  public float pathLength() {
+    this.checkValidity();
+    if (keyFrameList.isEmpty())
+      return 0;
+    if (!valuesAreValid)
+      updateModifiedFrameValues();
+    if (!arcLengthIsValid)
+      updateArcLengths();
+    return arcLengths[arcSize - 1];
+  }
+
+  /**
+   * Internal use. Tabulates the path length, sampling each segment Hermite curve
+   * {@link #ARC_LENGTH_STEPS} times. Requires up to date keyFrame values (see
+   * {@link #updateModifiedFrameValues()}).
+   */
+  protected void updateArcLengths() {
+    int n = keyFrameList.size();
+    arcSize = (n - 1) * ARC_LENGTH_STEPS + 1;
+    if (arcLengths == null || arcLengths.length < arcSize) {
+      arcLengths = new float[arcSize];
+      arcTimes = new float[arcSize];
+    }
+    KeyFrame kf1 = keyFrameList.get(0);
+    arcLengths[0] = 0;
+    arcTimes[0] = kf1.time();
+    int j = 1;
+    for (int s = 1; s < n; s++) {
+      KeyFrame kf2 = keyFrameList.get(s);
+      float[] c1 = kf1.cache, c2 = kf2.cache;
+      float[] tg1 = kf1.tgP().vec, tg2 = kf2.tgP().vec;
+      float px = c1[0], py = c1[1], pz = c1[2];
+      for (int step = 1; step <= ARC_LENGTH_STEPS; step++, j++) {
+        float u = step / (float) ARC_LENGTH_STEPS;
+        for (int k = 0; k < 3; k++) {
+          // same polynomial as in updateSplineCache()
+          float delta = c2[k] - c1[k];
+          float v1 = 3.0f * delta - 2.0f * tg1[k] - tg2[k];
+          float v2 = -2.0f * delta + tg1[k] + tg2[k];
+          hermite[k] = c1[k] + (tg1[k] + (v1 + v2 * u) * u) * u;
+        }
+        float dx = hermite[0] - px, dy = hermite[1] - py, dz = hermite[2] - pz;
+        arcLengths[j] = arcLengths[j - 1] + (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+        arcTimes[j] = Util.lerp(kf1.time(), kf2.time(), u);
+        px = hermite[0];
+        py = hermite[1];
+        pz = hermite[2];
+      }
+      kf1 = kf2;
+    }
+    arcLengthIsValid = true;
+  }
+
+  /**
+   * Internal use. Maps the interpolation {@code time} to the keyFrame time at which the
+   * path length traveled since {@link #firstTime()} is proportional to the elapsed time
+   * (as modified by the {@link #easing()} profile), by binary searching the path length
+   * table.
+   */
+  protected float arcLengthTime(float time) {
+    if (!arcLengthIsValid)
+      updateArcLengths();
+    float total = arcLengths[arcSize - 1];
+    float duration = duration();
+    if (Util.zero(total) || Util.zero(duration))
+      return time;
+    float f = Math.max(0, Math.min(1, (time - firstTime()) / duration));
+    if (easing != null)
+      f = Math.max(0, Math.min(1, easing.distance(f)));
+    float target = f * total;
+    // last entry which length is not greater than target
+    int lo = 0, hi = arcSize - 1;
+    while (lo < hi) {
+      int mid = (lo + hi + 1) >>> 1;
+      if (arcLengths[mid] <= target)
+        lo = mid;
+      else
+        hi = mid - 1;
+    }
+    if (lo == arcSize - 1)
+      return arcTimes[lo];
+    float span = arcLengths[lo + 1] - arcLengths[lo];
+    return Util.zero(span) ? arcTimes[lo] : Util.lerp(arcTimes[lo], arcTimes[lo + 1], (target - arcLengths[lo]) / span);
+  }
+
+  // P O L Y L I N E
+
+  /**
+   * Internal use. Polyline points of a path segment (i.e., between two consecutive
+   * keyFrames), excluding its last point, together with the tolerance they were computed
+   * with. See {@link KeyFrameInterpolator#polyline(Eye, float)}.
+   */
+  protected static class PathSegment {
+    float[] points = new float[24];
+    int size;
+    float tolerance;
+    boolean valid;
+
+    void add(float x, float y, float z) {
+      if (3 * size + 3 > points.length) {
+        float[] p = new float[2 * points.length];
+        System.arraycopy(points, 0, p, 0, 3 * size);
+        points = p;
+      }
+      points[3 * size] = x;
+      points[3 * size + 1] = y;
+      points[3 * size + 2] = z;
+      size++;
+    }
+  }
+
+  /**
+   * Returns the number of points of the last computed {@link #polyline(Eye, float)}.
+   */
+  public int polylineSize() {
+    return polylineSize;
+  }
+
+  /**
+   * Returns the path position curve as a polyline, packed as {@code (x,y,z)} world
+   * coordinates, {@link #polylineSize()} points long. The returned array is owned by the
+   * interpolator and should not be modified.
+   * <p>
+   * Contrary to {@link #path()}, which samples a fixed number of frames per segment and
+   * regenerates the whole path when any keyFrame changes, each segment is adaptively
+   * subdivided until its deviation from the actual curve is less than {@code pixels}
+   * (measured on the {@code eye} screen at the segment location, see
+   * {@link remixlab.dandelion.core.Eye#sceneToPixelRatio(Vec)}), or less than
+   * {@code pixels} scene units if {@code eye} is {@code null}. Only the segments affected by
+   * a modified or appended keyFrame, or which tolerance changed more than twice since they
+   * were computed, are re-sampled. Hence recording a path keyFrame by keyFrame costs
+   * constant time per keyFrame.
+   */
+  public float[] polyline(Eye eye, float pixels) {
+    int n = keyFrameList.size();
+    if (!segmentsAreValid) {
+      segments.clear();
+      for (KeyFrame element : keyFrameList)
+        element.polylineVersion = -1;
+      segmentsAreValid = true;
+    }
+    while (segments.size() < n - 1)
+      segments.add(new PathSegment());
+    // 1. modified or appended keyFrames and 2. the tangents depending on them
+    updateModifiedKeyFrames(false);
+    // 3. segments depend on the tangents of their keyFrames
+    int first = n;
+    for (int s = 0; s < n - 1; s++) {
+      PathSegment segment = segments.get(s);
+      boolean affected = false;
+      for (int i = Math.max(0, s - 1); i <= Math.min(n - 1, s + 2) && !affected; i++)
+        affected = dirty[i];
+      float[] c1 = keyFrameList.get(s).cache, c2 = keyFrameList.get(s + 1).cache;
+      float tolerance = pixels;
+      if (eye != null) {
+        tmpVec.set((c1[0] + c2[0]) / 2, (c1[1] + c2[1]) / 2, (c1[2] + c2[2]) / 2);
+        tolerance *= eye.sceneToPixelRatio(tmpVec);
+      }
+      if (affected || !segment.valid || tolerance < segment.tolerance / 2 || tolerance > segment.tolerance * 2) {
+        sampleSegment(s, segment, tolerance);
+        first = Math.min(first, s);
+      }
+    }
+    // 4. pack the segments, from the first re-sampled one
+    if (n < 2)
+      first = 0;
+    int offset = 0;
+    for (int s = 0; s < first && s < n - 1; s++)
+      offset += segments.get(s).size;
+    int size = offset;
+    for (int s = first; s < n - 1; s++)
+      size += segments.get(s).size;
+    if (n > 0)
+      size++;
+    if (polyline.length < 3 * size) {
+      float[] p = new float[Math.max(3 * size, 2 * polyline.length)];
+      System.arraycopy(polyline, 0, p, 0, 3 * offset);
+      polyline = p;
+    }
+    for (int s = first; s < n - 1; s++) {
+      PathSegment segment = segments.get(s);
+      System.arraycopy(segment.points, 0, polyline, 3 * offset, 3 * segment.size);
+      offset += segment.size;
+    }
+    if (n > 0)
+      System.arraycopy(keyFrameList.get(n - 1).cache, 0, polyline, 3 * offset, 3);
+    polylineSize = size;
+    return polyline;
+  }
+
+  /**
+   * Internal use. Adaptively samples the {@code s}-th path segment within the given
+   * {@code tolerance} (in scene units).
+   */
+  protected void sampleSegment(int s, PathSegment segment, float tolerance) {
+    KeyFrame kf1 = keyFrameList.get(s), kf2 = keyFrameList.get(s + 1);
+    float[] c1 = kf1.cache, c2 = kf2.cache;
+    float[] tg1 = kf1.tgP().vec, tg2 = kf2.tgP().vec;
+    // same polynomial as in updateSplineCache()
+    float[] coef = hermite;
+    for (int k = 0; k < 3; k++) {
+      float delta = c2[k] - c1[k];
+      coef[k] = tg1[k];
+      coef[3 + k] = 3.0f * delta - 2.0f * tg1[k] - tg2[k];
+      coef[6 + k] = -2.0f * delta + tg1[k] + tg2[k];
+    }
+    segment.size = 0;
+    segment.tolerance = tolerance;
+    segment.valid = true;
+    segment.add(c1[0], c1[1], c1[2]);
+    subdivide(segment, c1, coef, 0, c1[0], c1[1], c1[2], 1, c2[0], c2[1], c2[2], 0, tolerance);
+    // the segment last point is the next segment first one
+    segment.size--;
+  }
+
+  protected void subdivide(PathSegment segment, float[] c, float[] coef, float t0, float x0, float y0, float z0,
+                           float t1, float x1, float y1, float z1, int depth, float tolerance) {
+    float t = (t0 + t1) / 2;
+    float x = c[0] + (coef[0] + (coef[3] + coef[6] * t) * t) * t;
+    float y = c[1] + (coef[1] + (coef[4] + coef[7] * t) * t) * t;
+    float z = c[2] + (coef[2] + (coef[5] + coef[8] * t) * t) * t;
+    float dx = x - (x0 + x1) / 2, dy = y - (y0 + y1) / 2, dz = z - (z0 + z1) / 2;
+    // at least 4 pieces (so that s-shaped segments aren't missed) and at most 64
+    if (depth < 2 || (depth < 6 && dx * dx + dy * dy + dz * dz > tolerance * tolerance)) {
+      subdivide(segment, c, coef, t0, x0, y0, z0, t, x, y, z, depth + 1, tolerance);
+      subdivide(segment, c, coef, t, x, y, z, t1, x1, y1, z1, depth + 1, tolerance);
+    } else
+      segment.add(x1, y1, z1);
+  }
+
+  // S C H E D U L E R
+
+  /**
+   * Internal use. Same as {@link #update()}, but instead of updating the {@link #frame()},
+   * its world position, orientation quaternion and magnitude are stored at
+   * {@code out[offset..offset+7]} (see {@link #sample(float, float[], int)}). Returns
+   * {@code true} if the interpolation reached its end and should be stopped. Called by the
+   * {@link #scheduler()}.
+   */
+  protected boolean step(float dt, float[] out, int offset) {
+    sample(interpolationTime(), out, offset);
+    interpolationTm += interpolationSpeed() * dt;
+    if (interpolationTime() > keyFrameList.get(keyFrameList.size() - 1).time()) {
+      if (loopInterpolation())
+        setInterpolationTime(
+            keyFrameList.get(0).time() + interpolationTm - keyFrameList.get(keyFrameList.size() - 1).time());
+      else {
+        // Make sure last KeyFrame is reached and displayed
+        sample(keyFrameList.get(keyFrameList.size() - 1).time(), out, offset);
+        return true;
+      }
+    } else if (interpolationTime() < keyFrameList.get(0).time()) {
+      if (loopInterpolation())
+        setInterpolationTime(
+            keyFrameList.get(keyFrameList.size() - 1).time() - keyFrameList.get(0).time() + interpolationTm);
+      else {
+        // Make sure first KeyFrame is reached and displayed
+        sample(keyFrameList.get(0).time(), out, offset);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Same as {@link #interpolateAtTime(float)}, but instead of updating the
+   * {@link #frame()}, its world position (3 floats), orientation quaternion (4 floats,
+   * {@code (x,y,z,w)}, a rotation around the z-axis in 2D) and magnitude are stored at
+   * {@code out[offset..offset+7]}. Returns {@code false} (and nothing is stored) if the
+   * path is empty or there's no {@link #frame()}.
+   * <p>
+   * Apart from the (rare) key frames and spline cache updates, no object is allocated.
+   * Since only the interpolator own state is modified, different interpolators may be
+   * sampled concurrently (see
+   * {@link remixlab.dandelion.core.KeyFrameScheduler#setExecutor(java.util.concurrent.ExecutorService, int)}).
+   */
+  public boolean sample(float time, float[] out, int offset) {
     this.checkValidity();
     setInterpolationTime(time);
 
     if ((keyFrameList.isEmpty()) || (frame() == null))
-      return;
+      return false;
 
     if (!valuesAreValid)
       updateModifiedFrameValues();
 
+    if (constantSpeed)
+      time = arcLengthTime(time);
+
     updateCurrentKeyFrameForTime(time);
 
     if (!splineCacheIsValid)
       updateSplineCache();
 
+    KeyFrame kf1 = keyFrameList.get(currentFrame1.nextIndex());
+    KeyFrame kf2 = keyFrameList.get(currentFrame2.nextIndex());
     float alpha;
-    float dt = keyFrameList.get(currentFrame2.nextIndex()).time() - keyFrameList.get(currentFrame1.nextIndex()).time();
+    float dt = kf2.time() - kf1.time();
     if (Util.zero(dt))
       alpha = 0.0f;
     else
-      alpha = (time - keyFrameList.get(currentFrame1.nextIndex()).time()) / dt;
+      alpha = (time - kf1.time()) / dt;
 
-    Vec pos = Vec.add(keyFrameList.get(currentFrame1.nextIndex()).position(), Vec.multiply(
-        Vec.add(keyFrameList.get(currentFrame1.nextIndex()).tgP(),
-            Vec.multiply(Vec.add(pv1, Vec.multiply(pv2, alpha)), alpha)), alpha));
+    float[] c1 = kf1.cache, c2 = kf2.cache;
+    float[] tg = kf1.tgP().vec, v1 = pv1.vec, v2 = pv2.vec;
+    for (int i = 0; i < 3; i++)
+      out[offset + i] = c1[i] + (tg[i] + (v1[i] + v2[i] * alpha) * alpha) * alpha;
 
-    float mag = Util.lerp(keyFrameList.get(currentFrame1.nextIndex()).magnitude(),
-        keyFrameList.get(currentFrame2.nextIndex()).magnitude(), alpha);
-
-    Rotation q;
     if (gScene.is3D()) {
-      q = Quat.squad((Quat) keyFrameList.get(currentFrame1.nextIndex()).orientation(),
-          ((KeyFrame3D) keyFrameList.get(currentFrame1.nextIndex())).tgQ(),
-          ((KeyFrame3D) keyFrameList.get(currentFrame2.nextIndex())).tgQ(),
-          (Quat) keyFrameList.get(currentFrame2.nextIndex()).orientation(), alpha);
+      // squad, see Quat.squad(Quat, Quat, Quat, Quat, float)
+      slerp(c1, 3, c2, 3, alpha, true, squadTmp, 0);
+      slerp(((KeyFrame3D) kf1).tgQ().quat, 0, ((KeyFrame3D) kf2).tgQ().quat, 0, alpha, false, squadTmp, 4);
+      slerp(squadTmp, 0, squadTmp, 4, 2.0f * alpha * (1.0f - alpha), false, out, offset + 3);
     } else {
-      q = new Rot(Util.lerp(keyFrameList.get(currentFrame1.nextIndex()).orientation().angle(),
-          keyFrameList.get(currentFrame2.nextIndex()).orientation().angle(), (alpha)));
+      sampledAngle = Util.lerp(c1[8], c2[8], alpha);
+      float half = sampledAngle / 2;
+      out[offset + 3] = 0;
+      out[offset + 4] = 0;
+      out[offset + 5] = (float) Math.sin(half);
+      out[offset + 6] = (float) Math.cos(half);
     }
+    out[offset + 7] = Util.lerp(c1[7], c2[7], alpha);
+    return true;
+  }
 
-    frame().setPositionWithConstraint(pos);
-    frame().setRotationWithConstraint(q);
-    frame().setMagnitude(mag);
+  /**
+   * Bakes the interpolator path into a compact {@link remixlab.dandelion.core.KeyFrameClip},
+   * sampled {@code rate} times per second (of {@link #interpolationTime()}) from
+   * {@link #firstTime()} to {@link #lastTime()}. The {@link #interpolationTime()} and the
+   * {@link #frame()} are left untouched. Returns {@code null} if the path is empty.
+   */
+  public KeyFrameClip bake(float rate) {
+    if (keyFrameList.isEmpty() || rate <= 0)
+      return null;
+    float time = interpolationTime();
+    Frame target = frame();
+    // sample() requires a frame but doesn't modify it
+    if (target == null)
+      mainFrame = new Frame();
+    int n = Math.max(2, (int) Math.ceil(duration() * rate) + 1);
+    float dt = duration() / (n - 1);
+    float[] samples = new float[8 * n];
+    for (int i = 0; i < n; i++)
+      sample(firstTime() + i * dt, samples, 8 * i);
+    mainFrame = target;
+    setInterpolationTime(time);
+    return new KeyFrameClip(samples, n, firstTime(), dt);
+  }
+
+  /**
+   * Internal use. Same as {@link remixlab.dandelion.geom.Quat#slerp(Quat, Quat, float, boolean)}
+   * but on the {@code (x,y,z,w)} quaternions stored at {@code a[ao..ao+3]} and
+   * {@code b[bo..bo+3]}. The result is stored at {@code out[oo..oo+3]}, which may overlap
+   * {@code a} or {@code b}.
+   */
+  protected static void slerp(float[] a, int ao, float[] b, int bo, float t, boolean allowFlip, float[] out, int oo) {
+    float cosAngle = a[ao] * b[bo] + a[ao + 1] * b[bo + 1] + a[ao + 2] * b[bo + 2] + a[ao + 3] * b[bo + 3];
+    float c1, c2;
+    // Linear interpolation for close orientations
+    if ((1.0 - Math.abs(cosAngle)) < 0.01) {
+      c1 = 1.0f - t;
+      c2 = t;
+    } else {
+      // Spherical interpolation
+      float angle = (float) Math.acos(Math.abs(cosAngle));
+      float sinAngle = (float) Math.sin(angle);
+      c1 = (float) Math.sin(angle * (1.0f - t)) / sinAngle;
+      c2 = (float) Math.sin(angle * t) / sinAngle;
+    }
+    // Use the shortest path
+    if (allowFlip && (cosAngle < 0.0))
+      c1 = -c1;
+    float x = c1 * a[ao] + c2 * b[bo];
+    float y = c1 * a[ao + 1] + c2 * b[bo + 1];
+    float z = c1 * a[ao + 2] + c2 * b[bo + 2];
+    float w = c1 * a[ao + 3] + c2 * b[bo + 3];
+    out[oo] = x;
+    out[oo + 1] = y;
+    out[oo + 2] = z;
+    out[oo + 3] = w;
   }
 }
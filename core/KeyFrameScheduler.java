@@ -0,0 +1,225 @@
+/**************************************************************************************
+ * dandelion_tree
+ * Copyright (c) 2014-2017 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.dandelion.core;
+
+import remixlab.dandelion.geom.Frame;
+import remixlab.dandelion.geom.ScratchArena;
+import remixlab.fpstiming.TimingTask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Advances a set of {@link remixlab.dandelion.core.KeyFrameInterpolator}s in a single
+ * pass per tick, driven by a single timing task, instead of having each interpolator
+ * advanced by its own timer. See
+ * {@link remixlab.dandelion.core.KeyFrameInterpolator#setScheduler(KeyFrameScheduler)}.
+ * <p>
+ * Each tick is performed in two phases: all the running interpolators are first sampled
+ * (see {@link remixlab.dandelion.core.KeyFrameInterpolator#sample(float, float[], int)})
+ * into packed position, orientation and magnitude arrays, which are then written into the
+ * interpolated frames, just as
+ * {@link remixlab.dandelion.core.KeyFrameInterpolator#interpolateAtTime(float)} does
+ * (unconstrained 3D root frames in a single
+ * {@link remixlab.dandelion.core.GenericFrame#setTransforms(GenericFrame[], float[], float[], float[], int, boolean)}
+ * call). Since the interpolators are independent, the sampling phase may be split among
+ * several threads (see {@link #setExecutor(ExecutorService, int)}).
+ */
+public class KeyFrameScheduler {
+  protected AbstractScene gScene;
+  protected List<KeyFrameInterpolator> active;
+  protected TimingTask timerTask;
+  protected int period;
+
+  protected ExecutorService executor;
+  protected int tasks;
+
+  // packed results
+  protected KeyFrameInterpolator[] running;
+  protected boolean[] done;
+  protected float[] samples, positions, orientations, magnitudes;
+  protected GenericFrame[] targets;
+
+  /**
+   * Creates a scheduler which advances its interpolators every 40 milliseconds.
+   */
+  public KeyFrameScheduler(AbstractScene scn) {
+    gScene = scn;
+    active = new ArrayList<KeyFrameInterpolator>();
+    period = 40;
+    allocate(16);
+    timerTask = new TimingTask() {
+      public void execute() {
+        tick();
+      }
+    };
+    gScene.registerTimingTask(timerTask);
+  }
+
+  /**
+   * Returns the scene this object belongs to.
+   */
+  public AbstractScene scene() {
+    return gScene;
+  }
+
+  /**
+   * Returns the period (in milliseconds) at which the interpolators are advanced. Default
+   * is 40 milliseconds.
+   */
+  public int period() {
+    return period;
+  }
+
+  /**
+   * Sets the {@link #period()}.
+   */
+  public void setPeriod(int myPeriod) {
+    if (myPeriod <= 0)
+      return;
+    period = myPeriod;
+    if (timerTask.isActive())
+      timerTask.run(period);
+  }
+
+  /**
+   * Samples the interpolators using {@code tasks} jobs submitted to {@code exec}. Pass a
+   * {@code null} {@code exec} to sample them from the timing thread (default).
+   */
+  public void setExecutor(ExecutorService exec, int jobs) {
+    executor = exec;
+    tasks = Math.max(1, jobs);
+  }
+
+  /**
+   * Returns the number of running interpolators.
+   */
+  public int size() {
+    return active.size();
+  }
+
+  /**
+   * Internal use. Called by
+   * {@link remixlab.dandelion.core.KeyFrameInterpolator#startInterpolation(int)}.
+   */
+  protected void add(KeyFrameInterpolator kfi) {
+    if (active.contains(kfi))
+      return;
+    active.add(kfi);
+    if (!timerTask.isActive())
+      timerTask.run(period);
+  }
+
+  /**
+   * Internal use. Called by
+   * {@link remixlab.dandelion.core.KeyFrameInterpolator#stopInterpolation()}.
+   */
+  protected void remove(KeyFrameInterpolator kfi) {
+    if (active.remove(kfi) && active.isEmpty())
+      timerTask.stop();
+  }
+
+  protected void allocate(int capacity) {
+    running = new KeyFrameInterpolator[capacity];
+    done = new boolean[capacity];
+    samples = new float[8 * capacity];
+    positions = new float[3 * capacity];
+    orientations = new float[4 * capacity];
+    magnitudes = new float[capacity];
+    targets = new GenericFrame[capacity];
+  }
+
+  /**
+   * Advances all the running interpolators by {@link #period()} (times their
+   * {@link remixlab.dandelion.core.KeyFrameInterpolator#interpolationSpeed()}) and
+   * updates their frames. Called by the scheduler timing task.
+   */
+  public void tick() {
+    final int n = active.size();
+    if (n == 0)
+      return;
+    if (running.length < n)
+      allocate(Math.max(n, 2 * running.length));
+    active.toArray(running);
+    final float dt = period / 1000.0f;
+    if (executor == null || tasks == 1 || n < 2 * tasks)
+      sample(0, n, dt);
+    else {
+      List<Future<?>> futures = new ArrayList<Future<?>>(tasks);
+      for (int t = 0; t < tasks; t++) {
+        final int from = t * n / tasks;
+        final int to = (t + 1) * n / tasks;
+        futures.add(executor.submit(new Runnable() {
+          public void run() {
+            sample(from, to, dt);
+            ScratchArena.reset();
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        try {
+          future.get();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new RuntimeException("Parallel interpolation interrupted", e);
+        } catch (ExecutionException e) {
+          throw new RuntimeException("Parallel interpolation failed", e.getCause());
+        }
+      }
+    }
+    apply(n);
+    for (int i = 0; i < n; i++) {
+      if (done[i])
+        running[i].stopInterpolation();
+      running[i] = null;
+    }
+  }
+
+  /**
+   * Internal use. Samples the {@code [from..to)} running interpolators.
+   */
+  protected void sample(int from, int to, float dt) {
+    for (int i = from; i < to; i++)
+      done[i] = running[i].step(dt, samples, 8 * i);
+  }
+
+  /**
+   * Internal use. Writes the samples into the interpolated frames, with the same semantics
+   * as {@link remixlab.dandelion.core.KeyFrameInterpolator#interpolateAtTime(float)}: the
+   * 3D unconstrained root generic-frames (for which the world and local transformations
+   * coincide) are set in a single
+   * {@link remixlab.dandelion.core.GenericFrame#setTransforms(GenericFrame[], float[], float[], float[], int, boolean)}
+   * call, and the other frames one by one.
+   */
+  protected void apply(int n) {
+    int m = 0;
+    for (int i = 0; i < n; i++) {
+      Frame frame = running[i].frame();
+      float[] s = samples;
+      int o = 8 * i;
+      if (frame instanceof GenericFrame && frame.is3D() && frame.referenceFrame() == null
+          && frame.constraint() == null) {
+        targets[m] = (GenericFrame) frame;
+        System.arraycopy(s, o, positions, 3 * m, 3);
+        System.arraycopy(s, o + 3, orientations, 4 * m, 4);
+        magnitudes[m] = s[o + 7];
+        m++;
+      } else if (frame != null)
+        running[i].applySample(s, o);
+    }
+    GenericFrame.setTransforms(targets, positions, orientations, magnitudes, m, false);
+    for (int i = 0; i < m; i++)
+      targets[i] = null;
+  }
+}
@@ -24,6 +24,10 @@ public abstract class MatrixHelper {
 
   protected Mat projectionViewMat, projectionViewInverseMat;
   protected boolean isProjViwInvCached, projectionViewMatHasInv;
+  // change tracking, see cacheProjectionView()
+  protected Eye projectionViewEye;
+  protected long projectionViewVersion = -1;
+  protected boolean projectionViewInvIsUpToDate;
 
   /**
    * Instantiates the {@link #projectionView()} matrix and sets
@@ -61,13 +65,25 @@ public abstract class MatrixHelper {
 
   /**
    * Internal use. Called in {@link #bind()}. Note that P x V is always cached.
+   * <p>
+   * P x V (and its inverse) are only recomputed when the
+   * {@link remixlab.dandelion.core.Eye#version()} changed since the last call (or when
+   * the {@link remixlab.dandelion.core.AbstractScene#eye()} itself changed).
    */
   protected void cacheProjectionView() {
-    Mat.multiply(projection(), modelView(), projectionViewMat);
-    if (isProjectionViewInverseCached()) {
+    Eye eye = gScene.eye();
+    long v = eye.version();
+    if (eye != projectionViewEye || v != projectionViewVersion) {
+      Mat.multiply(projection(), modelView(), projectionViewMat);
+      projectionViewEye = eye;
+      projectionViewVersion = v;
+      projectionViewInvIsUpToDate = false;
+    }
+    if (isProjectionViewInverseCached() && !projectionViewInvIsUpToDate) {
       if (projectionViewInverseMat == null)
         projectionViewInverseMat = new Mat();
       projectionViewMatHasInv = projectionViewMat.invert(projectionViewInverseMat);
+      projectionViewInvIsUpToDate = true;
     }
   }
 
@@ -0,0 +1,124 @@
+/**************************************************************************************
+ * dandelion_tree
+ * Copyright (c) 2014-2017 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.dandelion.core;
+
+import remixlab.dandelion.geom.Mat;
+
+/**
+ * A {@link remixlab.dandelion.core.DrawList} which retains the (world matrix, frame)
+ * entries of the whole frame hierarchy among frames. Used by
+ * {@link remixlab.dandelion.core.AbstractScene#traverseTreeRetained()}.
+ * <p>
+ * Entries are kept in tree (pre-) order, together with the index of their parent entry
+ * and the number of entries spanned by their branch. Thus, on {@link #update(AbstractScene)}
+ * a branch which {@link remixlab.dandelion.core.GenericFrame#branchVersion()} didn't
+ * change is skipped at once, and only the frames which
+ * {@link remixlab.dandelion.core.GenericFrame#version()} changed get their world matrix
+ * recomputed. The list is fully re-recorded only when the hierarchy structure changes
+ * (see {@link remixlab.dandelion.core.AbstractScene#treeVersion()}).
+ */
+public class RetainedDrawList extends DrawList {
+  protected int[] parents, extents;
+  protected long recordedVersion = -1;
+  protected long treeVersion = -1;
+  protected AbstractScene scene;
+  protected float recordedAlpha = 1;
+
+  @Override
+  protected void allocate(int capacity) {
+    int[] p = new int[capacity];
+    int[] e = new int[capacity];
+    if (parents != null) {
+      System.arraycopy(parents, 0, p, 0, size);
+      System.arraycopy(extents, 0, e, 0, size);
+    }
+    parents = p;
+    extents = e;
+    super.allocate(capacity);
+  }
+
+  /**
+   * Brings the list up to date with the {@code scn} frame hierarchy.
+   */
+  public void update(AbstractScene scn) {
+    if (scn != scene || scn.treeVersion() != treeVersion) {
+      scene = scn;
+      treeVersion = scn.treeVersion();
+      record();
+    } else if (scn.tickAlpha() != recordedAlpha)
+      // tick interpolated frames may change without being modified
+      recompute();
+    else
+      refresh();
+    recordedAlpha = scn.tickAlpha();
+    recordedVersion = GenericFrame.versionCount;
+  }
+
+  /**
+   * Internal use. Records the entries of all the scene reachable frames.
+   */
+  protected void record() {
+    clear();
+    for (GenericFrame frame : scene.leadingFrames())
+      record(frame, -1);
+  }
+
+  protected void record(GenericFrame frame, int parent) {
+    if (size == frames.length)
+      allocate(2 * frames.length);
+    int index = size++;
+    frames[index] = frame;
+    order[index] = index;
+    parents[index] = parent;
+    computeMatrix(index);
+    for (GenericFrame child : frame.children())
+      record(child, index);
+    extents[index] = size - index;
+  }
+
+  /**
+   * Internal use. Recomputes the world matrices of the frames modified since the last
+   * {@link #update(AbstractScene)}, skipping the unchanged branches.
+   */
+  protected void refresh() {
+    int i = 0;
+    while (i < size) {
+      GenericFrame frame = frames[i];
+      if (frame.branchVersion() <= recordedVersion) {
+        i += extents[i];
+        continue;
+      }
+      // modifying a frame also modifies all its descendants (which come next)
+      if (frame.version() > recordedVersion)
+        computeMatrix(i);
+      i++;
+    }
+  }
+
+  /**
+   * Internal use. Recomputes the world matrices of all the entries.
+   */
+  protected void recompute() {
+    // parents come first
+    for (int i = 0; i < size; i++)
+      computeMatrix(i);
+  }
+
+  protected void computeMatrix(int index) {
+    int parent = parents[index];
+    if (parent < 0)
+      frames[index].interpolatedMatrix(matrices[index]);
+    else {
+      frames[index].interpolatedMatrix(tmp);
+      Mat.multiply(matrices[parent], tmp, matrices[index]);
+    }
+  }
+}
@@ -0,0 +1,290 @@
+/**************************************************************************************
+ * dandelion_tree
+ * Copyright (c) 2014-2017 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.dandelion.core;
+
+import remixlab.dandelion.geom.*;
+
+/**
+ * A {@link remixlab.dandelion.core.MatrixStackHelper} which keeps the modelview as a
+ * (translation, rotation quaternion, uniform scaling) tuple applied after a base matrix
+ * (typically the {@link remixlab.dandelion.core.Eye} view, see {@link #setModelView(Mat)}).
+ * Install it with {@link remixlab.dandelion.core.AbstractScene#setMatrixHelper(MatrixHelper)}.
+ * <p>
+ * Translations, rotations, uniform scalings and
+ * {@link remixlab.dandelion.core.AbstractScene#applyTransformation(Frame)} are composed
+ * into the tuple (a quaternion product plus a rotated translation) and
+ * {@link #pushModelView()} saves just its 8 floats. The 4x4 modelview is only
+ * materialized when it's actually requested (see {@link #modelView()}). Hence traversing
+ * deep hierarchies of uniformly scaled frames takes less arithmetic, and pushes copy half
+ * as many floats, as with the {@link remixlab.dandelion.core.MatrixStackHelper}.
+ * <p>
+ * Operations which can't be represented by the tuple, i.e., non-uniform scalings and
+ * {@link #applyModelView(Mat)}, fold the tuple into the base matrix first, so that the
+ * results are the same as the ones of the {@link remixlab.dandelion.core.MatrixStackHelper}.
+ * In 2D, {@code scale(s, s)} is taken as a uniform scaling (which also scales the
+ * {@code z} axis, unused by 2D geometry).
+ */
+public class TRSStackHelper extends MatrixStackHelper {
+  private static final int MATRIX_STACK_DEPTH = 32;
+
+  private static final String ERROR_PUSHMATRIX_OVERFLOW = "Too many calls to pushModelView().";
+  private static final String ERROR_PUSHMATRIX_UNDERFLOW = "Too many calls to popModelView(), and not enough to pushModelView().";
+
+  // current tuple: translation, quaternion (x,y,z,w) and scaling
+  protected float[] trs = {0, 0, 0, 0, 0, 0, 1, 1};
+  protected Mat base = new Mat();
+
+  float[][] trsStack = new float[MATRIX_STACK_DEPTH][8];
+  // base matrix saved by the first change since the respective push, see saveBase()
+  float[][] baseStack = new float[MATRIX_STACK_DEPTH][16];
+  boolean[] baseSaved = new boolean[MATRIX_STACK_DEPTH];
+  int trsStackDepth;
+
+  protected Mat materialized = new Mat();
+  protected boolean materializedIsValid;
+  private Mat tmp = new Mat();
+
+  public TRSStackHelper(AbstractScene scn) {
+    super(scn);
+  }
+
+  @Override
+  public void pushModelView() {
+    if (trsStackDepth == MATRIX_STACK_DEPTH) {
+      throw new RuntimeException(ERROR_PUSHMATRIX_OVERFLOW);
+    }
+    System.arraycopy(trs, 0, trsStack[trsStackDepth], 0, 8);
+    baseSaved[trsStackDepth] = false;
+    trsStackDepth++;
+  }
+
+  @Override
+  public void popModelView() {
+    if (trsStackDepth == 0) {
+      throw new RuntimeException(ERROR_PUSHMATRIX_UNDERFLOW);
+    }
+    trsStackDepth--;
+    System.arraycopy(trsStack[trsStackDepth], 0, trs, 0, 8);
+    if (baseSaved[trsStackDepth])
+      base.set(baseStack[trsStackDepth]);
+    materializedIsValid = false;
+  }
+
+  @Override
+  public void resetModelView() {
+    saveBase();
+    base.reset();
+    resetTRS();
+  }
+
+  protected void resetTRS() {
+    trs[0] = trs[1] = trs[2] = 0;
+    trs[3] = trs[4] = trs[5] = 0;
+    trs[6] = trs[7] = 1;
+    materializedIsValid = false;
+  }
+
+  /**
+   * Returns a copy of the modelview, i.e., the base matrix times the matrix of the
+   * (translation, rotation, scaling) tuple.
+   */
+  @Override
+  public Mat modelView() {
+    return materialize().get();
+  }
+
+  @Override
+  public Mat getModelView(Mat target) {
+    if (target == null)
+      target = new Mat();
+    target.set(materialize());
+    return target;
+  }
+
+  @Override
+  public void printModelView() {
+    materialize().print();
+  }
+
+  @Override
+  public void setModelView(Mat source) {
+    saveBase();
+    base.set(source);
+    resetTRS();
+  }
+
+  @Override
+  public void applyModelView(Mat source) {
+    fold();
+    base.apply(source);
+  }
+
+  /**
+   * Internal use. Computes (if needed) the 4x4 modelview.
+   */
+  protected Mat materialize() {
+    if (!materializedIsValid) {
+      Mat.multiply(base, trsMatrix(tmp), materialized);
+      materializedIsValid = true;
+    }
+    return materialized;
+  }
+
+  /**
+   * Internal use. Stores the matrix of the current tuple into {@code target}.
+   */
+  protected Mat trsMatrix(Mat target) {
+    float[] m = target.mat;
+    float x = trs[3], y = trs[4], z = trs[5], w = trs[6], s = trs[7];
+    float q00 = 2.0f * x * x;
+    float q11 = 2.0f * y * y;
+    float q22 = 2.0f * z * z;
+    float q01 = 2.0f * x * y;
+    float q02 = 2.0f * x * z;
+    float q03 = 2.0f * x * w;
+    float q12 = 2.0f * y * z;
+    float q13 = 2.0f * y * w;
+    float q23 = 2.0f * z * w;
+    m[0] = (1.0f - q11 - q22) * s;
+    m[1] = (q01 + q23) * s;
+    m[2] = (q02 - q13) * s;
+    m[3] = 0;
+    m[4] = (q01 - q23) * s;
+    m[5] = (1.0f - q22 - q00) * s;
+    m[6] = (q12 + q03) * s;
+    m[7] = 0;
+    m[8] = (q02 + q13) * s;
+    m[9] = (q12 - q03) * s;
+    m[10] = (1.0f - q11 - q00) * s;
+    m[11] = 0;
+    m[12] = trs[0];
+    m[13] = trs[1];
+    m[14] = trs[2];
+    m[15] = 1;
+    return target;
+  }
+
+  /**
+   * Internal use. Saves the base matrix, if it wasn't since the last push, so that
+   * {@link #popModelView()} restores it. Should be called before the base is modified.
+   */
+  protected void saveBase() {
+    if (trsStackDepth > 0 && !baseSaved[trsStackDepth - 1]) {
+      base.get(baseStack[trsStackDepth - 1]);
+      baseSaved[trsStackDepth - 1] = true;
+    }
+  }
+
+  /**
+   * Internal use. Folds the current tuple into the base matrix (see {@link #saveBase()})
+   * and resets the tuple.
+   */
+  protected void fold() {
+    saveBase();
+    base.set(materialize());
+    resetTRS();
+  }
+
+  /**
+   * Applies the {@code (tx,ty,tz)} translation, the {@code (qx,qy,qz,qw)} unit quaternion
+   * rotation and the uniform scaling {@code s}, in that order, to the tuple.
+   */
+  public void applyTRS(float tx, float ty, float tz, float qx, float qy, float qz, float qw, float s) {
+    float x = trs[3], y = trs[4], z = trs[5], w = trs[6], scl = trs[7];
+    // rotated translation: t += scl * q * (tx,ty,tz) * conjugate(q)
+    if (tx != 0 || ty != 0 || tz != 0) {
+      float q00 = 2.0f * x * x;
+      float q11 = 2.0f * y * y;
+      float q22 = 2.0f * z * z;
+      float q01 = 2.0f * x * y;
+      float q02 = 2.0f * x * z;
+      float q03 = 2.0f * x * w;
+      float q12 = 2.0f * y * z;
+      float q13 = 2.0f * y * w;
+      float q23 = 2.0f * z * w;
+      trs[0] += scl * ((1.0f - q11 - q22) * tx + (q01 - q23) * ty + (q02 + q13) * tz);
+      trs[1] += scl * ((q01 + q23) * tx + (1.0f - q22 - q00) * ty + (q12 - q03) * tz);
+      trs[2] += scl * ((q02 - q13) * tx + (q12 + q03) * ty + (1.0f - q11 - q00) * tz);
+    }
+    // q = q * (qx,qy,qz,qw)
+    if (qx != 0 || qy != 0 || qz != 0) {
+      trs[3] = w * qx + qw * x + y * qz - z * qy;
+      trs[4] = w * qy + qw * y - x * qz + z * qx;
+      trs[5] = w * qz + qw * z + x * qy - y * qx;
+      trs[6] = w * qw - x * qx - y * qy - z * qz;
+    }
+    trs[7] = scl * s;
+    materializedIsValid = false;
+  }
+
+  /**
+   * Same as {@code applyTRS(translation, rotation, scaling)} of the {@code frame}, i.e.,
+   * what {@link remixlab.dandelion.core.AbstractScene#applyTransformation(Frame)} does.
+   */
+  public void applyTransformation(Frame frame) {
+    float[] t = frame.translation().vec;
+    Rotation r = frame.rotation();
+    if (r instanceof Quat) {
+      float[] q = ((Quat) r).quat;
+      applyTRS(t[0], t[1], t[2], q[0], q[1], q[2], q[3], frame.scaling());
+    } else {
+      float half = r.angle() / 2;
+      applyTRS(t[0], t[1], t[2], 0, 0, FastMath.sin(half), FastMath.cos(half), frame.scaling());
+    }
+  }
+
+  @Override
+  public void translate(float tx, float ty, float tz) {
+    applyTRS(tx, ty, tz, 0, 0, 0, 1, 1);
+  }
+
+  @Override
+  public void rotateX(float angle) {
+    applyTRS(0, 0, 0, FastMath.sin(angle / 2), 0, 0, FastMath.cos(angle / 2), 1);
+  }
+
+  @Override
+  public void rotateY(float angle) {
+    applyTRS(0, 0, 0, 0, FastMath.sin(angle / 2), 0, FastMath.cos(angle / 2), 1);
+  }
+
+  @Override
+  public void rotateZ(float angle) {
+    applyTRS(0, 0, 0, 0, 0, FastMath.sin(angle / 2), FastMath.cos(angle / 2), 1);
+  }
+
+  @Override
+  public void rotate(float angle, float v0, float v1, float v2) {
+    float norm = (float) Math.sqrt(v0 * v0 + v1 * v1 + v2 * v2);
+    if (norm == 0)
+      return;
+    float sin = FastMath.sin(angle / 2) / norm;
+    applyTRS(0, 0, 0, v0 * sin, v1 * sin, v2 * sin, FastMath.cos(angle / 2), 1);
+  }
+
+  @Override
+  public void scale(float sx, float sy) {
+    if (gScene.is2D() && sx == sy)
+      applyTRS(0, 0, 0, 0, 0, 0, 1, sx);
+    else
+      scale(sx, sy, 1);
+  }
+
+  @Override
+  public void scale(float x, float y, float z) {
+    if (x == y && y == z)
+      applyTRS(0, 0, 0, 0, 0, 0, 1, x);
+    else {
+      fold();
+      base.scale(x, y, z);
+    }
+  }
+}
@@ -0,0 +1,228 @@
+/**************************************************************************************
+ * dandelion_tree
+ * Copyright (c) 2014-2017 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.dandelion.core;
+
+import remixlab.dandelion.geom.Vec;
+
+import java.util.IdentityHashMap;
+
+/**
+ * A temporally coherent cache of {@link remixlab.dandelion.core.Eye#ballVisibility(Vec, float)}
+ * results.
+ * <p>
+ * Each time a ball (attached to a {@link remixlab.dandelion.core.GenericFrame}) is
+ * actually tested, its visibility is stored together with a conservative "safe motion"
+ * margin: the smallest distance any of the eye boundary planes may travel (with respect
+ * to the ball) before the visibility result may change. This margin is derived from the
+ * ball signed distances to the boundary planes (see
+ * {@link remixlab.dandelion.core.Eye#distanceToBoundary(int, Vec)}).
+ * <p>
+ * The cache keeps track of how much the boundary planes have moved since (their normals
+ * and offsets), and the ball is only re-tested when the accumulated eye motion, plus the
+ * ball own motion, exceeds its margin. When neither the eye (see
+ * {@link remixlab.dandelion.core.Eye#version()}) nor the frame (see
+ * {@link remixlab.dandelion.core.GenericFrame#version()}) changed, the cached result is
+ * returned right away. Small eye or object motions thus only trigger the re-test of the
+ * objects lying close to the eye boundary.
+ * <p>
+ * Typical usage, within the frame {@link remixlab.dandelion.core.GenericFrame#visit()}:
+ * <p>
+ * <pre>
+ * {@code
+ * if(visibilityCache.ballVisibility(this, position(), radius) != Eye.Visibility.INVISIBLE)
+ *   drawMyObject();
+ * }
+ * </pre>
+ */
+public class VisibilityCache {
+  protected static class Entry {
+    Eye.Visibility visibility;
+    float margin;
+    float x, y, z, r;
+    long frameVersion, eyeVersion;
+    double normalDrift, offsetDrift;
+  }
+
+  protected Eye eye;
+  protected IdentityHashMap<GenericFrame, Entry> entries;
+
+  // eye boundary tracking
+  protected long eyeVersion = -1;
+  protected float[] prevA, prevB, prevC, prevD;
+  protected double normalDrift, offsetDrift;
+
+  protected long hits, tests;
+
+  /**
+   * Creates an empty visibility cache for the given {@code eye}.
+   */
+  public VisibilityCache(Eye eye) {
+    this.eye = eye;
+    entries = new IdentityHashMap<GenericFrame, Entry>();
+  }
+
+  /**
+   * Returns the eye this cache belongs to.
+   */
+  public Eye eye() {
+    return eye;
+  }
+
+  /**
+   * Removes the cached result of {@code frame}. Call it when the frame is pruned from the
+   * scene, so that it may be garbage collected.
+   */
+  public void remove(GenericFrame frame) {
+    entries.remove(frame);
+  }
+
+  /**
+   * Removes all the cached results.
+   */
+  public void clear() {
+    entries.clear();
+  }
+
+  /**
+   * Returns the number of queries answered from the cache since the last
+   * {@link #resetStats()}.
+   */
+  public long hits() {
+    return hits;
+  }
+
+  /**
+   * Returns the number of queries which required an actual visibility test since the last
+   * {@link #resetStats()}.
+   */
+  public long tests() {
+    return tests;
+  }
+
+  /**
+   * Resets {@link #hits()} and {@link #tests()}.
+   */
+  public void resetStats() {
+    hits = 0;
+    tests = 0;
+  }
+
+  /**
+   * Internal use. Accumulates the boundary planes motion (i.e., the max variation of the
+   * plane normals and offsets) each time the eye {@link remixlab.dandelion.core.Eye#version()}
+   * changes.
+   */
+  protected void updateDrift() {
+    long v = eye.version();
+    if (v == eyeVersion)
+      return;
+    eye.updateBoundaryEquations();
+    eye.packBoundaryEquations();
+    int n = eye.bndA.length;
+    if (prevA == null || prevA.length != n) {
+      prevA = new float[n];
+      prevB = new float[n];
+      prevC = new float[n];
+      prevD = new float[n];
+      // no reference planes yet: invalidate everything
+      entries.clear();
+    } else {
+      float maxN = 0, maxD = 0;
+      for (int i = 0; i < n; ++i) {
+        float da = eye.bndA[i] - prevA[i];
+        float db = eye.bndB[i] - prevB[i];
+        float dc = eye.bndC[i] - prevC[i];
+        maxN = Math.max(maxN, (float) Math.sqrt(da * da + db * db + dc * dc));
+        maxD = Math.max(maxD, Math.abs(eye.bndD[i] - prevD[i]));
+      }
+      normalDrift += maxN;
+      offsetDrift += maxD;
+    }
+    System.arraycopy(eye.bndA, 0, prevA, 0, n);
+    System.arraycopy(eye.bndB, 0, prevB, 0, n);
+    System.arraycopy(eye.bndC, 0, prevC, 0, n);
+    System.arraycopy(eye.bndD, 0, prevD, 0, n);
+    eyeVersion = v;
+  }
+
+  /**
+   * Returns the visibility of the ball attached to {@code frame}, with world {@code center}
+   * and {@code radius}, the same as {@link remixlab.dandelion.core.Eye#ballVisibility(Vec, float)}
+   * does, but re-testing it only when needed (see the class documentation).
+   */
+  public Eye.Visibility ballVisibility(GenericFrame frame, Vec center, float radius) {
+    updateDrift();
+    Entry entry = entries.get(frame);
+    float x = center.vec[0], y = center.vec[1], z = center.vec[2];
+    if (entry != null) {
+      if (entry.frameVersion == frame.version() && entry.eyeVersion == eyeVersion && entry.x == x && entry.y == y
+          && entry.z == z && entry.r == radius) {
+        hits++;
+        return entry.visibility;
+      }
+      // Signed distance variation bound: |n'.c' - d' - (n.c - d)| <= |n'-n||c'| + |d'-d| + |c'-c|
+      float dx = x - entry.x, dy = y - entry.y, dz = z - entry.z;
+      double move = Math.sqrt(dx * dx + dy * dy + dz * dz);
+      double norm = Math.sqrt(x * x + y * y + z * z);
+      double bound = (normalDrift - entry.normalDrift) * norm + (offsetDrift - entry.offsetDrift) + move
+          + Math.abs(radius - entry.r);
+      if (bound < entry.margin) {
+        entry.frameVersion = frame.version();
+        entry.eyeVersion = eyeVersion;
+        hits++;
+        return entry.visibility;
+      }
+    } else {
+      entry = new Entry();
+      entries.put(frame, entry);
+    }
+    test(entry, x, y, z, radius);
+    entry.frameVersion = frame.version();
+    entry.eyeVersion = eyeVersion;
+    return entry.visibility;
+  }
+
+  /**
+   * Internal use. Performs the actual ball visibility test and computes its safe motion
+   * margin, i.e., the min distance from the ball signed distances to the boundary planes
+   * to the {@code -radius} and {@code radius} thresholds that determine the result.
+   */
+  protected void test(Entry entry, float x, float y, float z, float radius) {
+    tests++;
+    boolean allInForAllPlanes = true;
+    // margin for the visible and semi-visible cases: no threshold should be crossed
+    float margin = Float.MAX_VALUE;
+    // margin for the invisible case: the ball should remain beyond one of the planes
+    float outMargin = -1;
+    for (int i = 0; i < eye.bndA.length; ++i) {
+      float d = eye.bndA[i] * x + eye.bndB[i] * y + eye.bndC[i] * z - eye.bndD[i];
+      margin = Math.min(margin, Math.min(Math.abs(d - radius), Math.abs(d + radius)));
+      if (d > radius)
+        outMargin = Math.max(outMargin, d - radius);
+      if ((d > 0) || (-d < radius))
+        allInForAllPlanes = false;
+    }
+    if (outMargin > 0) {
+      entry.visibility = Eye.Visibility.INVISIBLE;
+      margin = outMargin;
+    } else if (allInForAllPlanes)
+      entry.visibility = Eye.Visibility.VISIBLE;
+    else
+      entry.visibility = Eye.Visibility.SEMIVISIBLE;
+    entry.margin = margin;
+    entry.x = x;
+    entry.y = y;
+    entry.z = z;
+    entry.r = radius;
+    entry.normalDrift = normalDrift;
+    entry.offsetDrift = offsetDrift;
+  }
+}
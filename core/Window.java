@@ -214,17 +214,21 @@ public class Window extends Eye implements Copyable {
     Vec up = upVector();
     Vec right = rightVector();
 
-    normal[0] = Vec.multiply(right, -1);
-    normal[1] = right;
-    normal[2] = up;
-    normal[3] = Vec.multiply(up, -1);
+    Vec.multiply(right, -1, normal[0]);
+    normal[1].set(right);
+    normal[2].set(up);
+    Vec.multiply(up, -1, normal[3]);
 
     float[] wh = getBoundaryWidthHeight();
 
-    dist[0] = Vec.dot(Vec.subtract(pos, Vec.multiply(right, wh[0])), normal[0]);
-    dist[1] = Vec.dot(Vec.add(pos, Vec.multiply(right, wh[0])), normal[1]);
-    dist[2] = Vec.dot(Vec.add(pos, Vec.multiply(up, wh[1])), normal[2]);
-    dist[3] = Vec.dot(Vec.subtract(pos, Vec.multiply(up, wh[1])), normal[3]);
+    Vec tmp = ScratchArena.vec();
+    Vec offset = ScratchArena.vec();
+    Vec.multiply(right, wh[0], offset);
+    dist[0] = Vec.dot(Vec.subtract(pos, offset, tmp), normal[0]);
+    dist[1] = Vec.dot(Vec.add(pos, offset, tmp), normal[1]);
+    Vec.multiply(up, wh[1], offset);
+    dist[2] = Vec.dot(Vec.add(pos, offset, tmp), normal[2]);
+    dist[3] = Vec.dot(Vec.subtract(pos, offset, tmp), normal[3]);
 
     for (int i = 0; i < 4; ++i) {
       coef[i][0] = normal[i].vec[0];
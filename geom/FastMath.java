@@ -0,0 +1,146 @@
+/**************************************************************************************
+ * dandelion_tree
+ * Copyright (c) 2014-2017 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.dandelion.geom;
+
+/**
+ * Trigonometric functions used by {@link remixlab.dandelion.geom.Quat} and
+ * {@link remixlab.dandelion.geom.Rot}. They either call the (double precision)
+ * {@code java.lang.Math} functions (default) or, when {@link #isEnabled()}, evaluate single
+ * precision polynomial approximations, which avoid the double precision round trip and
+ * are accurate enough for interactive rendering. Maximum absolute errors are:
+ * <ol>
+ * <li>{@link #sin(float)} and {@link #cos(float)}: {@code 5e-6}, for arguments within
+ * {@code [-1e3..1e3]} (larger arguments lose precision in the range reduction).</li>
+ * <li>{@link #acos(float)}: {@code 5e-7} radians.</li>
+ * <li>{@link #atan2(float, float)}: {@code 1.2e-5} radians.</li>
+ * <li>{@link remixlab.dandelion.geom.Quat#slerp(Quat, Quat, float, boolean)}: orientations
+ * less than 60 degrees apart (i.e., quaternions which dot product is greater than
+ * {@code 0.866}) are blended with a corrected normalized linear interpolation, which
+ * rotation differs from the slerp one in less than {@code 1.5e-4} radians (see
+ * {@link #nlerpCorrection(float, float)}).</li>
+ * </ol>
+ * The mode is global (it's shared by all the scenes) and is usually set with
+ * {@link remixlab.dandelion.core.AbstractScene#enableFastMath()}.
+ */
+public final class FastMath {
+  // read from the worker threads of the parallel traversals and schedulers
+  private static volatile boolean enabled;
+
+  private static final float PI = (float) Math.PI;
+  private static final float HALF_PI = (float) (Math.PI / 2);
+  // 2 * pi split in two, so that k * TWO_PI_HI is exact for moderate k (Cody-Waite)
+  private static final float TWO_PI_HI = 6.28125f;
+  private static final float TWO_PI_LO = (float) (2 * Math.PI - 6.28125);
+  private static final float INV_TWO_PI = (float) (1 / (2 * Math.PI));
+
+  private FastMath() {
+  }
+
+  /**
+   * Returns {@code true} if the polynomial approximations are used and {@code false}
+   * (default) otherwise.
+   */
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Enables or disables the polynomial approximations.
+   */
+  public static void setEnabled(boolean enable) {
+    enabled = enable;
+  }
+
+  /**
+   * Returns the sine of {@code x} (in radians).
+   */
+  public static float sin(float x) {
+    if (!enabled)
+      return (float) Math.sin(x);
+    // reduce to [-pi..pi] and then to [-pi/2..pi/2]
+    int k = Math.round(x * INV_TWO_PI);
+    x = (x - k * TWO_PI_HI) - k * TWO_PI_LO;
+    if (x > HALF_PI)
+      x = PI - x;
+    else if (x < -HALF_PI)
+      x = -PI - x;
+    float x2 = x * x;
+    return x * (1 + x2 * (-1 / 6.0f + x2 * (1 / 120.0f + x2 * (-1 / 5040.0f + x2 * (1 / 362880.0f)))));
+  }
+
+  /**
+   * Returns the cosine of {@code x} (in radians).
+   */
+  public static float cos(float x) {
+    if (!enabled)
+      return (float) Math.cos(x);
+    return sin(x + HALF_PI);
+  }
+
+  /**
+   * Returns the arc cosine of {@code x}, in {@code [0..pi]}. {@code x} is clamped to
+   * {@code [-1..1]} in fast mode.
+   */
+  public static float acos(float x) {
+    if (!enabled)
+      return (float) Math.acos(x);
+    boolean negative = x < 0;
+    x = Math.min(Math.abs(x), 1);
+    // Abramowitz and Stegun 4.4.46
+    float p = -0.0012624911f;
+    p = p * x + 0.0066700901f;
+    p = p * x - 0.0170881256f;
+    p = p * x + 0.0308918810f;
+    p = p * x - 0.0501743046f;
+    p = p * x + 0.0889789874f;
+    p = p * x - 0.2145988016f;
+    p = p * x + 1.5707963050f;
+    float result = (float) Math.sqrt(1 - x) * p;
+    return negative ? PI - result : result;
+  }
+
+  /**
+   * Returns the angle, in {@code [-pi..pi]}, of the point {@code (x,y)}.
+   */
+  public static float atan2(float y, float x) {
+    if (!enabled)
+      return (float) Math.atan2(y, x);
+    float ax = Math.abs(x), ay = Math.abs(y);
+    if (ax == 0 && ay == 0)
+      return 0;
+    float result = ay <= ax ? atan(ay / ax) : HALF_PI - atan(ax / ay);
+    if (x < 0)
+      result = PI - result;
+    return y < 0 ? -result : result;
+  }
+
+  /**
+   * Abramowitz and Stegun 4.4.47 arc tangent, for {@code x} within {@code [-1..1]}.
+   */
+  private static float atan(float x) {
+    float x2 = x * x;
+    return x * (0.9998660f + x2 * (-0.3302995f + x2 * (0.1801410f + x2 * (-0.0851330f + x2 * 0.0208351f))));
+  }
+
+  /**
+   * Returns the linear interpolation parameter which makes the normalized linear
+   * interpolation of two unit quaternions approximate their slerp at {@code t}, given the
+   * cosine {@code cosAngle} (non-negative) of the angle between them (i.e., half the angle
+   * between the rotations they represent). For {@code cosAngle > 0.866} (rotations up to
+   * 60 degrees apart) the interpolated rotation differs from the slerp one in less than
+   * {@code 1.5e-4} radians (i.e., {@code 7.5e-5} radians of quaternion angle).
+   */
+  public static float nlerpCorrection(float t, float cosAngle) {
+    float d = 1 - cosAngle;
+    float k = d * (0.316f + 0.145f * d);
+    return t * (t * (2 * k * t - 3 * k) + 1 + k);
+  }
+}
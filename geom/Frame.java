@@ -135,6 +135,8 @@ public class Frame implements Copyable {
   protected Rotation rot;
   protected Frame refFrame;
   protected Constraint cnstrnt;
+  // rotation dimension, cached so that is3D() is a field read, see setRotation(Rotation)
+  protected boolean threeD;
 
   public Frame() {
     this(true);
@@ -209,6 +211,7 @@ public class Frame implements Copyable {
   protected Frame(Frame other) {
     trans = other.translation().get();
     rot = other.rotation().get();
+    threeD = other.threeD;
     scl = other.scaling();
     refFrame = other.referenceFrame();
     cnstrnt = other.constraint();
@@ -240,7 +243,7 @@ public class Frame implements Copyable {
    * @return true if frame is 3D.
    */
   public boolean is3D() {
-    return rotation() instanceof Quat;
+    return threeD;
   }
 
   // REFERENCE_FRAME
@@ -437,7 +440,13 @@ public class Frame implements Copyable {
    * @see #translation()
    */
   public final Vec position() {
-    return inverseCoordinatesOf(new Vec(0, 0, 0));
+    ScalarVec res = new ScalarVec(translation());
+    for (Frame fr = referenceFrame(); fr != null; fr = fr.referenceFrame()) {
+      res.multiply(fr.scaling());
+      res.rotate(fr.rotation());
+      res.add(fr.translation());
+    }
+    return res.get();
   }
 
   /**
@@ -515,6 +524,7 @@ public class Frame implements Copyable {
    */
   public final void setRotation(Rotation r) {
     rot = r;
+    threeD = r instanceof Quat;
     modified();
   }
 
@@ -621,17 +631,23 @@ public class Frame implements Copyable {
     if (is3D())
       this.rotation().normalize(); // Prevents numerical drift
 
-    Rotation q;
-    if (is3D())
-      q = new Quat(orientation().rotate(((Quat) rotation).axis()), rotation.angle());
-    else
-      q = new Rot(rotation.angle());
-    Vec t = Vec.add(point, q.rotate(Vec.subtract(position(), point)));
+    // offset from point to the position, rotated around the world rotation axis (i.e.,
+    // the rotation one, up to the positive world magnitude, transformed to world)
+    Vec offset = ScratchArena.vec(translation());
+    if (referenceFrame() != null)
+      referenceFrame().inverseCoordinatesOf(offset, offset);
+    ScalarVec t = new ScalarVec(Vec.subtract(offset, point, offset));
+    if (is3D()) {
+      float[] r = ((Quat) rotation).quat;
+      t.rotate(ScratchArena.quat(inverseTransformOf(ScratchArena.vec(r[0], r[1], r[2]), offset), rotation.angle()));
+    } else
+      t.rotate(rotation.angle());
+    t.add(point);
     t.subtract(translation());
     if (constraint() != null)
-      translate(constraint().constrainTranslation(t, this));
+      translate(constraint().constrainTranslation(t.get(offset), this));
     else
-      translate(t);
+      translate(t.get(offset));
   }
 
   // TODO this one needs testing, specially 2d case
@@ -666,15 +682,24 @@ public class Frame implements Copyable {
    * @see #rotation()
    */
   public final Rotation orientation() {
-    Rotation res = rotation().get();
-    Frame fr = referenceFrame();
-    while (fr != null) {
-      if (is3D())
-        res = Quat.compose(fr.rotation(), res);
-      else
-        res = Rot.compose(fr.rotation(), res);
-      fr = fr.referenceFrame();
+    if (!threeD)
+      return new Rot(worldAngle());
+    ScalarQuat res = new ScalarQuat((Quat) rotation());
+    for (Frame fr = referenceFrame(); fr != null; fr = fr.referenceFrame()) {
+      if (!(fr.rotation() instanceof Quat))
+        return fr.orientationOf(res.get());
+      res.preMultiply((Quat) fr.rotation());
     }
+    return res.get();
+  }
+
+  /**
+   * Returns the world orientation of the rotation {@code res}, expressed in the Frame
+   * coordinate system. Fallback of {@link #orientation()} for mixed 2D/3D hierarchies.
+   */
+  private Rotation orientationOf(Rotation res) {
+    for (Frame fr = this; fr != null; fr = fr.referenceFrame())
+      res = Quat.compose(fr.rotation(), res);
     return res;
   }
 
@@ -687,15 +712,41 @@ public class Frame implements Copyable {
    * instead.
    */
   public final void setOrientation(Rotation q) {
-    if (referenceFrame() != null) {
-      if (is3D())
-        setRotation(Quat.compose(referenceFrame().orientation().inverse(), q));
-      else
-        setRotation(Rot.compose(referenceFrame().orientation().inverse(), q));
-    } else
+    if (referenceFrame() != null)
+      setRotation(referenceFrame().localRotationOf(q, is3D()));
+    else
       setRotation(q);
   }
 
+  /**
+   * Returns the rotation, with respect to the Frame coordinate system, of the world
+   * {@code orientation}, i.e., {@code compose(orientation().inverse(), orientation)},
+   * either as a Quat (if {@code quat} is {@code true}) or as a Rot.
+   */
+  private Rotation localRotationOf(Rotation orientation, boolean quat) {
+    if (!quat)
+      return new Rot(orientation.angle() - (threeD ? orientation().angle() : worldAngle()));
+    Rotation o = orientation();
+    if (!(o instanceof Quat) || !(orientation instanceof Quat))
+      return Quat.compose(o.inverse(), orientation);
+    // conjugate(o) * orientation, o being a unit quaternion
+    float[] a = ((Quat) o).quat, b = ((Quat) orientation).quat;
+    return new Quat(a[3] * b[0] - b[3] * a[0] - a[1] * b[2] + a[2] * b[1],
+        a[3] * b[1] - b[3] * a[1] + a[0] * b[2] - a[2] * b[0],
+        a[3] * b[2] - b[3] * a[2] - a[0] * b[1] + a[1] * b[0],
+        a[3] * b[3] + a[0] * b[0] + a[1] * b[1] + a[2] * b[2]);
+  }
+
+  /**
+   * 2D {@link #orientation()} angle.
+   */
+  private float worldAngle() {
+    float angle = rotation().angle();
+    for (Frame fr = referenceFrame(); fr != null; fr = fr.referenceFrame())
+      angle += fr.rotation().angle();
+    return angle;
+  }
+
   /**
    * Same as {@link #setOrientation(Rotation)}, but with {@code float} parameters.
    */
@@ -711,12 +762,8 @@ public class Frame implements Copyable {
    * @see #setRotationWithConstraint(Rotation)
    */
   public final void setOrientationWithConstraint(Rotation orientation) {
-    if (referenceFrame() != null) {
-      if (is3D())
-        orientation = Quat.compose(referenceFrame().orientation().inverse(), orientation);
-      else
-        orientation = Rot.compose(referenceFrame().orientation().inverse(), orientation);
-    }
+    if (referenceFrame() != null)
+      orientation = referenceFrame().localRotationOf(orientation, is3D());
 
     setRotationWithConstraint(orientation);
   }
@@ -1155,29 +1202,67 @@ public class Frame implements Copyable {
    * {@link #worldMatrix()}. Use it immediately (as above).
    */
   public final Mat matrix() {
-    Mat pM = new Mat();
-
-    pM = rotation().matrix();
-
-    pM.mat[12] = translation().vec[0];
-    pM.mat[13] = translation().vec[1];
-    pM.mat[14] = translation().vec[2];
-
-    if (scaling() != 1) {
-      pM.setM00(pM.m00() * scaling());
-      pM.setM10(pM.m10() * scaling());
-      pM.setM20(pM.m20() * scaling());
-
-      pM.setM01(pM.m01() * scaling());
-      pM.setM11(pM.m11() * scaling());
-      pM.setM21(pM.m21() * scaling());
-
-      pM.setM02(pM.m02() * scaling());
-      pM.setM12(pM.m12() * scaling());
-      pM.setM22(pM.m22() * scaling());
+    return matrix(new Mat());
+  }
+
+  /**
+   * Fills {@code target} with the local transformation matrix represented by the Frame
+   * (see {@link #matrix()}) and returns it. If {@code target} is {@code null} a new Mat
+   * will be created.
+   * <p>
+   * Contrary to {@link #matrix()} no temporary object is allocated, so that this method
+   * may be used to compute many frame matrices per frame.
+   */
+  public final Mat matrix(Mat target) {
+    if (target == null)
+      target = new Mat();
+    float[] m = target.mat;
+    float s = scaling();
+    if (rotation() instanceof Quat) {
+      float[] q = ((Quat) rotation()).quat;
+      float q00 = 2.0f * q[0] * q[0];
+      float q11 = 2.0f * q[1] * q[1];
+      float q22 = 2.0f * q[2] * q[2];
+
+      float q01 = 2.0f * q[0] * q[1];
+      float q02 = 2.0f * q[0] * q[2];
+      float q03 = 2.0f * q[0] * q[3];
+
+      float q12 = 2.0f * q[1] * q[2];
+      float q13 = 2.0f * q[1] * q[3];
+      float q23 = 2.0f * q[2] * q[3];
+
+      m[0] = (1.0f - q11 - q22) * s;
+      m[1] = (q01 + q23) * s;
+      m[2] = (q02 - q13) * s;
+      m[4] = (q01 - q23) * s;
+      m[5] = (1.0f - q22 - q00) * s;
+      m[6] = (q12 + q03) * s;
+      m[8] = (q02 + q13) * s;
+      m[9] = (q12 - q03) * s;
+      m[10] = (1.0f - q11 - q00) * s;
+    } else {
+      float angle = rotation().angle();
+      float cosB = FastMath.cos(angle);
+      float sinB = FastMath.sin(angle);
+      m[0] = cosB * s;
+      m[1] = sinB * s;
+      m[2] = 0;
+      m[4] = -sinB * s;
+      m[5] = cosB * s;
+      m[6] = 0;
+      m[8] = 0;
+      m[9] = 0;
+      m[10] = s;
     }
-
-    return pM;
+    m[3] = 0;
+    m[7] = 0;
+    m[11] = 0;
+    m[12] = translation().vec[0];
+    m[13] = translation().vec[1];
+    m[14] = translation().vec[2];
+    m[15] = 1;
+    return target;
   }
 
   /**
@@ -1432,10 +1517,30 @@ public class Frame implements Copyable {
    * {@link #transformOf(Vec)} converts vectors instead of coordinates.
    */
   public final Vec coordinatesOf(Vec src) {
-    if (referenceFrame() != null)
-      return localCoordinatesOf(referenceFrame().coordinatesOf(src));
-    else
-      return localCoordinatesOf(src);
+    ScalarVec res = new ScalarVec(src);
+    // root first, iteratively, so that res never leaves this method
+    Frame[] chain = chain();
+    for (int i = chain.length - 1; i >= 0; i--) {
+      Frame fr = chain[i];
+      res.subtract(fr.translation());
+      res.inverseRotate(fr.rotation());
+      res.divide(fr.scaling());
+    }
+    return res.get();
+  }
+
+  /**
+   * Returns the Frame followed by its ancestors, up to the root one.
+   */
+  private Frame[] chain() {
+    int length = 1;
+    for (Frame fr = referenceFrame(); fr != null; fr = fr.referenceFrame())
+      length++;
+    Frame[] chain = new Frame[length];
+    Frame fr = this;
+    for (int i = 0; i < length; i++, fr = fr.referenceFrame())
+      chain[i] = fr;
+    return chain;
   }
 
   // VECTOR CONVERSION
@@ -1497,13 +1602,21 @@ public class Frame implements Copyable {
    * {@link #inverseTransformOf(Vec)} to transform vectors instead of coordinates.
    */
   public final Vec inverseCoordinatesOf(Vec src) {
-    Frame fr = this;
-    Vec res = src;
-    while (fr != null) {
-      res = fr.localInverseCoordinatesOf(res);
-      fr = fr.referenceFrame();
+    return inverseCoordinatesOf(src, null);
+  }
+
+  /**
+   * Same as {@link #inverseCoordinatesOf(Vec)}, but stores the result into {@code target}
+   * (if null, a new vector will be created), which may be {@code src}.
+   */
+  public final Vec inverseCoordinatesOf(Vec src, Vec target) {
+    ScalarVec res = new ScalarVec(src);
+    for (Frame fr = this; fr != null; fr = fr.referenceFrame()) {
+      res.multiply(fr.scaling());
+      res.rotate(fr.rotation());
+      res.add(fr.translation());
     }
-    return res;
+    return res.get(target);
   }
 
   /**
@@ -1515,10 +1628,23 @@ public class Frame implements Copyable {
    * rotational part of the transformation is taken into account).
    */
   public final Vec transformOf(Vec src) {
-    if (referenceFrame() != null)
-      return localTransformOf(referenceFrame().transformOf(src));
-    else
-      return localTransformOf(src);
+    return transformOf(src, null);
+  }
+
+  /**
+   * Same as {@link #transformOf(Vec)}, but stores the result into {@code target} (if
+   * null, a new vector will be created), which may be {@code src}.
+   */
+  public final Vec transformOf(Vec src, Vec target) {
+    ScalarVec res = new ScalarVec(src);
+    // root first, see coordinatesOf(Vec)
+    Frame[] chain = chain();
+    for (int i = chain.length - 1; i >= 0; i--) {
+      Frame fr = chain[i];
+      res.inverseRotate(fr.rotation());
+      res.divide(fr.scaling());
+    }
+    return res.get(target);
   }
 
   /**
@@ -1529,13 +1655,20 @@ public class Frame implements Copyable {
    * {@link #inverseCoordinatesOf(Vec)} to transform coordinates instead of vectors.
    */
   public final Vec inverseTransformOf(Vec src) {
-    Frame fr = this;
-    Vec res = src;
-    while (fr != null) {
-      res = fr.localInverseTransformOf(res);
-      fr = fr.referenceFrame();
+    return inverseTransformOf(src, null);
+  }
+
+  /**
+   * Same as {@link #inverseTransformOf(Vec)}, but stores the result into {@code target}
+   * (if null, a new vector will be created), which may be {@code src}.
+   */
+  public final Vec inverseTransformOf(Vec src, Vec target) {
+    ScalarVec res = new ScalarVec(src);
+    for (Frame fr = this; fr != null; fr = fr.referenceFrame()) {
+      res.multiply(fr.scaling());
+      res.rotate(fr.rotation());
     }
-    return res;
+    return res.get(target);
   }
 
   /**
@@ -1563,4 +1696,15 @@ public class Frame implements Copyable {
   public final Vec localInverseTransformOf(Vec src) {
     return rotation().rotate(Vec.multiply(src, scaling()));
   }
+
+  /**
+   * Same as {@link #localInverseTransformOf(Vec)}, but stores the result into
+   * {@code target} (if null, a new vector will be created), which may be {@code src}.
+   */
+  public final Vec localInverseTransformOf(Vec src, Vec target) {
+    ScalarVec res = new ScalarVec(src);
+    res.multiply(scaling());
+    res.rotate(rotation());
+    return res.get(target);
+  }
 }
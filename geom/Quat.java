@@ -611,11 +611,11 @@ public class Quat implements Linkable, Rotation {
       this.quat[2] = 0.0f;
       this.quat[3] = 1.0f;
     } else {
-      float sin_half_angle = (float) Math.sin(angle / 2.0f);
+      float sin_half_angle = FastMath.sin(angle / 2.0f);
       this.quat[0] = sin_half_angle * axis.vec[0] / norm;
       this.quat[1] = sin_half_angle * axis.vec[1] / norm;
       this.quat[2] = sin_half_angle * axis.vec[2] / norm;
-      this.quat[3] = (float) Math.cos(angle / 2.0f);
+      this.quat[3] = FastMath.cos(angle / 2.0f);
     }
   }
 
@@ -870,7 +870,7 @@ public class Quat implements Linkable, Rotation {
    */
   @Override
   public final float angle() {
-    return 2.0f * (float) Math.acos(w());
+    return 2.0f * FastMath.acos(w());
   }
 
   /**
@@ -942,7 +942,7 @@ public class Quat implements Linkable, Rotation {
     if (Util.zero(len))
       return new Quat(this.quat[0], this.quat[1], this.quat[2], 0.0f, false);
     else {
-      float coef = (float) Math.acos(this.quat[3]) / len;
+      float coef = FastMath.acos(this.quat[3]) / len;
       return new Quat(this.quat[0] * coef, this.quat[1] * coef, this.quat[2] * coef, 0.0f, false);
     }
   }
@@ -957,10 +957,10 @@ public class Quat implements Linkable, Rotation {
         .sqrt(this.quat[0] * this.quat[0] + this.quat[1] * this.quat[1] + this.quat[2] * this.quat[2]);
 
     if (Util.zero(theta))
-      return new Quat(this.quat[0], this.quat[1], this.quat[2], (float) Math.cos(theta));
+      return new Quat(this.quat[0], this.quat[1], this.quat[2], FastMath.cos(theta));
     else {
-      float coef = (float) Math.sin(theta) / theta;
-      return new Quat(this.quat[0] * coef, this.quat[1] * coef, this.quat[2] * coef, (float) Math.cos(theta));
+      float coef = FastMath.sin(theta) / theta;
+      return new Quat(this.quat[0] * coef, this.quat[1] * coef, this.quat[2] * coef, FastMath.cos(theta));
     }
   }
 
@@ -1018,12 +1018,19 @@ public class Quat implements Linkable, Rotation {
     if ((1.0 - Math.abs(cosAngle)) < 0.01) {
       c1 = 1.0f - t;
       c2 = t;
+    } else if (FastMath.isEnabled() && Math.abs(cosAngle) > 0.866f && (allowFlip || cosAngle > 0)) {
+      // Corrected normalized linear interpolation for orientations closer than 60 degrees
+      c2 = FastMath.nlerpCorrection(t, Math.abs(cosAngle));
+      c1 = 1.0f - c2;
+      float norm = (float) Math.sqrt(c1 * c1 + c2 * c2 + 2 * c1 * c2 * Math.abs(cosAngle));
+      c1 /= norm;
+      c2 /= norm;
     } else {
       // Spherical interpolation
-      float angle = (float) Math.acos(Math.abs(cosAngle));
-      float sinAngle = (float) Math.sin(angle);
-      c1 = (float) Math.sin(angle * (1.0f - t)) / sinAngle;
-      c2 = (float) Math.sin(angle * t) / sinAngle;
+      float angle = FastMath.acos(Math.abs(cosAngle));
+      float sinAngle = FastMath.sin(angle);
+      c1 = FastMath.sin(angle * (1.0f - t)) / sinAngle;
+      c2 = FastMath.sin(angle * t) / sinAngle;
     }
 
     // Use the shortest path
@@ -0,0 +1,229 @@
+/**************************************************************************************
+ * dandelion_tree
+ * Copyright (c) 2014-2017 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.dandelion.geom;
+
+/**
+ * Batch versions of the {@link remixlab.dandelion.geom.Quat} interpolation methods, which
+ * process {@code n} quaternions per call without allocating any object, e.g., to blend the
+ * bones of many skeletons at once.
+ * <p>
+ * Quaternions are stored in structure-of-arrays layout: an array of {@code n} quaternions
+ * holds {@code 4 * n} floats, the {@code x} coordinates of all the quaternions first, then
+ * all the {@code y} ones, and so on, i.e., the {@code i}-th quaternion is
+ * {@code (q[i], q[n+i], q[2*n+i], q[3*n+i])}. Hence each loop reads and writes contiguous
+ * memory, and its body is free of allocations and calls, which lets the JIT unroll (and,
+ * where supported, vectorize) it.
+ * <p>
+ * The output array may be any of the input ones. Results are the same as the ones of
+ * the respective {@link remixlab.dandelion.geom.Quat} methods (which also don't normalize
+ * their results).
+ */
+public final class QuatArrays {
+  private QuatArrays() {
+  }
+
+  /**
+   * Normalized linear interpolation of the {@code n} quaternions {@code a} and {@code b},
+   * at times {@code t}, using the shortest path. Much cheaper than
+   * {@link #slerp(float[], float[], float[], float[], int)}, although the angular velocity
+   * isn't constant.
+   */
+  public static void nlerp(float[] a, float[] b, float[] t, float[] out, int n) {
+    for (int i = 0; i < n; i++) {
+      float ax = a[i], ay = a[n + i], az = a[2 * n + i], aw = a[3 * n + i];
+      float bx = b[i], by = b[n + i], bz = b[2 * n + i], bw = b[3 * n + i];
+      float c2 = t[i];
+      float c1 = ax * bx + ay * by + az * bz + aw * bw < 0 ? c2 - 1 : 1 - c2;
+      float x = c1 * ax + c2 * bx, y = c1 * ay + c2 * by, z = c1 * az + c2 * bz, w = c1 * aw + c2 * bw;
+      float norm = (float) (1 / Math.sqrt(x * x + y * y + z * z + w * w));
+      out[i] = x * norm;
+      out[n + i] = y * norm;
+      out[2 * n + i] = z * norm;
+      out[3 * n + i] = w * norm;
+    }
+  }
+
+  /**
+   * Same as {@code slerp(a, b, t, out, n, true)}.
+   */
+  public static void slerp(float[] a, float[] b, float[] t, float[] out, int n) {
+    slerp(a, b, t, out, n, true);
+  }
+
+  /**
+   * Batch version of {@link remixlab.dandelion.geom.Quat#slerp(Quat, Quat, float, boolean)}:
+   * {@code out[i] = slerp(a[i], b[i], t[i], allowFlip)}, for the {@code n} quaternions.
+   */
+  public static void slerp(float[] a, float[] b, float[] t, float[] out, int n, boolean allowFlip) {
+    for (int i = 0; i < n; i++) {
+      float ax = a[i], ay = a[n + i], az = a[2 * n + i], aw = a[3 * n + i];
+      float bx = b[i], by = b[n + i], bz = b[2 * n + i], bw = b[3 * n + i];
+      float ti = t[i];
+      float cosAngle = ax * bx + ay * by + az * bz + aw * bw;
+      float abs = Math.abs(cosAngle);
+      float c1, c2;
+      // Linear interpolation for close orientations
+      if (1 - abs < 0.01f) {
+        c1 = 1 - ti;
+        c2 = ti;
+      } else {
+        float angle = (float) Math.acos(abs);
+        float inv = (float) (1 / Math.sin(angle));
+        c1 = (float) Math.sin(angle * (1 - ti)) * inv;
+        c2 = (float) Math.sin(angle * ti) * inv;
+      }
+      if (allowFlip && cosAngle < 0)
+        c1 = -c1;
+      out[i] = c1 * ax + c2 * bx;
+      out[n + i] = c1 * ay + c2 * by;
+      out[2 * n + i] = c1 * az + c2 * bz;
+      out[3 * n + i] = c1 * aw + c2 * bw;
+    }
+  }
+
+  /**
+   * Batch version of {@link remixlab.dandelion.geom.Quat#squad(Quat, Quat, Quat, Quat, float)}:
+   * {@code out[i] = squad(a[i], tgA[i], tgB[i], b[i], t[i])}, for the {@code n}
+   * quaternions. Use {@link #squadTangent(float[], float[], float[], float[], int)} to
+   * compute the tangents.
+   */
+  public static void squad(float[] a, float[] tgA, float[] tgB, float[] b, float[] t, float[] out, int n) {
+    for (int i = 0; i < n; i++) {
+      float ti = t[i];
+      // slerp(a, b, t)
+      float ax = a[i], ay = a[n + i], az = a[2 * n + i], aw = a[3 * n + i];
+      float bx = b[i], by = b[n + i], bz = b[2 * n + i], bw = b[3 * n + i];
+      float cosAngle = ax * bx + ay * by + az * bz + aw * bw;
+      float c1 = weight(Math.abs(cosAngle), 1 - ti), c2 = weight(Math.abs(cosAngle), ti);
+      if (cosAngle < 0)
+        c1 = -c1;
+      float px = c1 * ax + c2 * bx, py = c1 * ay + c2 * by, pz = c1 * az + c2 * bz, pw = c1 * aw + c2 * bw;
+      // slerp(tgA, tgB, t, false)
+      ax = tgA[i];
+      ay = tgA[n + i];
+      az = tgA[2 * n + i];
+      aw = tgA[3 * n + i];
+      bx = tgB[i];
+      by = tgB[n + i];
+      bz = tgB[2 * n + i];
+      bw = tgB[3 * n + i];
+      cosAngle = Math.abs(ax * bx + ay * by + az * bz + aw * bw);
+      c1 = weight(cosAngle, 1 - ti);
+      c2 = weight(cosAngle, ti);
+      float qx = c1 * ax + c2 * bx, qy = c1 * ay + c2 * by, qz = c1 * az + c2 * bz, qw = c1 * aw + c2 * bw;
+      // slerp(p, q, 2t(1-t), false)
+      float s = 2 * ti * (1 - ti);
+      cosAngle = Math.abs(px * qx + py * qy + pz * qz + pw * qw);
+      c1 = weight(cosAngle, 1 - s);
+      c2 = weight(cosAngle, s);
+      out[i] = c1 * px + c2 * qx;
+      out[n + i] = c1 * py + c2 * qy;
+      out[2 * n + i] = c1 * pz + c2 * qz;
+      out[3 * n + i] = c1 * pw + c2 * qw;
+    }
+  }
+
+  /**
+   * Returns the slerp weight of a quaternion at (normalized) time {@code t}, given the
+   * absolute value {@code abs} of the cosine of the angle between the two interpolated
+   * quaternions.
+   */
+  private static float weight(float abs, float t) {
+    if (1 - abs < 0.01f)
+      return t;
+    float angle = (float) Math.acos(abs);
+    return (float) (Math.sin(angle * t) / Math.sin(angle));
+  }
+
+  /**
+   * Batch version of {@link remixlab.dandelion.geom.Quat#log()}.
+   */
+  public static void log(float[] q, float[] out, int n) {
+    for (int i = 0; i < n; i++) {
+      float x = q[i], y = q[n + i], z = q[2 * n + i], w = q[3 * n + i];
+      float len = (float) Math.sqrt(x * x + y * y + z * z);
+      float coef = len < 1E-6f ? 1 : (float) Math.acos(w) / len;
+      out[i] = x * coef;
+      out[n + i] = y * coef;
+      out[2 * n + i] = z * coef;
+      out[3 * n + i] = 0;
+    }
+  }
+
+  /**
+   * Batch version of {@link remixlab.dandelion.geom.Quat#exp()}.
+   */
+  public static void exp(float[] q, float[] out, int n) {
+    for (int i = 0; i < n; i++) {
+      float x = q[i], y = q[n + i], z = q[2 * n + i];
+      float theta = (float) Math.sqrt(x * x + y * y + z * z);
+      float coef = theta < 1E-6f ? 1 : (float) Math.sin(theta) / theta;
+      out[i] = x * coef;
+      out[n + i] = y * coef;
+      out[2 * n + i] = z * coef;
+      out[3 * n + i] = (float) Math.cos(theta);
+    }
+  }
+
+  /**
+   * Batch version of {@link remixlab.dandelion.geom.Quat#squadTangent(Quat, Quat, Quat)}:
+   * {@code out[i] = squadTangent(before[i], center[i], after[i])}, for the {@code n} unit
+   * quaternions.
+   */
+  public static void squadTangent(float[] before, float[] center, float[] after, float[] out, int n) {
+    for (int i = 0; i < n; i++) {
+      float cx = center[i], cy = center[n + i], cz = center[2 * n + i], cw = center[3 * n + i];
+      // the inverse of a unit quaternion is its conjugate
+      float l1x, l1y, l1z, l2x, l2y, l2z;
+      {
+        float bx = before[i], by = before[n + i], bz = before[2 * n + i], bw = before[3 * n + i];
+        // lnDif(center, before) = log(normalize(conjugate(center) * before))
+        float x = cw * bx - cx * bw - cy * bz + cz * by;
+        float y = cw * by - cy * bw - cz * bx + cx * bz;
+        float z = cw * bz - cz * bw - cx * by + cy * bx;
+        float w = cw * bw + cx * bx + cy * by + cz * bz;
+        float norm = (float) Math.sqrt(x * x + y * y + z * z + w * w);
+        float len = (float) Math.sqrt(x * x + y * y + z * z) / norm;
+        float coef = len < 1E-6f ? 1 / norm : (float) Math.acos(Math.max(-1, Math.min(1, w / norm))) / (len * norm);
+        l1x = x * coef;
+        l1y = y * coef;
+        l1z = z * coef;
+      }
+      {
+        float bx = after[i], by = after[n + i], bz = after[2 * n + i], bw = after[3 * n + i];
+        // lnDif(center, after)
+        float x = cw * bx - cx * bw - cy * bz + cz * by;
+        float y = cw * by - cy * bw - cz * bx + cx * bz;
+        float z = cw * bz - cz * bw - cx * by + cy * bx;
+        float w = cw * bw + cx * bx + cy * by + cz * bz;
+        float norm = (float) Math.sqrt(x * x + y * y + z * z + w * w);
+        float len = (float) Math.sqrt(x * x + y * y + z * z) / norm;
+        float coef = len < 1E-6f ? 1 / norm : (float) Math.acos(Math.max(-1, Math.min(1, w / norm))) / (len * norm);
+        l2x = x * coef;
+        l2y = y * coef;
+        l2z = z * coef;
+      }
+      // e = exp(-(l1 + l2) / 4)
+      float ex = -0.25f * (l1x + l2x), ey = -0.25f * (l1y + l2y), ez = -0.25f * (l1z + l2z);
+      float theta = (float) Math.sqrt(ex * ex + ey * ey + ez * ez);
+      float coef = theta < 1E-6f ? 1 : (float) Math.sin(theta) / theta;
+      ex *= coef;
+      ey *= coef;
+      ez *= coef;
+      float ew = (float) Math.cos(theta);
+      // center * e
+      out[i] = cw * ex + cx * ew + cy * ez - cz * ey;
+      out[n + i] = cw * ey + cy * ew + cz * ex - cx * ez;
+      out[2 * n + i] = cw * ez + cz * ew + cx * ey - cy * ex;
+      out[3 * n + i] = cw * ew - cx * ex - cy * ey - cz * ez;
+    }
+  }
+}
@@ -84,30 +84,30 @@ public class Rot implements Rotation {
 
   @Override
   public Vec rotate(Vec v) {
-    float cosB = (float) Math.cos(angle());
-    float sinB = (float) Math.sin(angle());
+    float cosB = FastMath.cos(angle());
+    float sinB = FastMath.sin(angle());
     return new Vec(((v.x() * cosB) - (v.y() * sinB)), ((v.x() * sinB) + (v.y() * cosB)));
   }
 
   @Override
   public Vec inverseRotate(Vec v) {
-    float cosB = (float) Math.cos(-angle());
-    float sinB = (float) Math.sin(-angle());
+    float cosB = FastMath.cos(-angle());
+    float sinB = FastMath.sin(-angle());
     return new Vec(((v.x() * cosB) - (v.y() * sinB)), ((v.x() * sinB) + (v.y() * cosB)));
   }
 
   @Override
   public Mat matrix() {
-    float cosB = (float) Math.cos((double) angle());
-    float sinB = (float) Math.sin((double) angle());
+    float cosB = FastMath.cos(angle());
+    float sinB = FastMath.sin(angle());
 
     return new Mat(cosB, sinB, 0, 0, -sinB, cosB, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1);
   }
 
   @Override
   public Mat inverseMatrix() {
-    float cosB = (float) Math.cos(-angle());
-    float sinB = (float) Math.sin(-angle());
+    float cosB = FastMath.cos(-angle());
+    float sinB = FastMath.sin(-angle());
 
     return new Mat(cosB, sinB, 0, 0, -sinB, cosB, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1);
   }
@@ -117,7 +117,7 @@ public class Rot implements Rotation {
     // "If both sine and cosine of the angle are already known, ATAN2(sin, cos)
     // gives the angle"
     // http://www.firebirdsql.org/refdocs/langrefupd21-intfunc-atan2.html
-    angle = (float) Math.atan2(glMatrix.m10(), glMatrix.m00());
+    angle = FastMath.atan2(glMatrix.m10(), glMatrix.m00());
   }
 
   @Override
@@ -126,7 +126,7 @@ public class Rot implements Rotation {
     // "If both sine and cosine of the angle are already known, ATAN2(sin, cos)
     // gives the angle"
     // http://www.firebirdsql.org/refdocs/langrefupd21-intfunc-atan2.html
-    angle = (float) Math.atan2(X.vec[1], X.vec[0]);
+    angle = FastMath.atan2(X.vec[1], X.vec[0]);
   }
 
   @Override
@@ -176,7 +176,7 @@ public class Rot implements Rotation {
       angle = 0;
     else
       // angle =(float) Math.acos( (double)Vec.dot(from, to) / ( fromNorm * toNorm ));
-      angle = (float) Math.atan2(from.x() * to.y() - from.y() * to.x(), from.x() * to.x() + from.y() * to.y());
+      angle = FastMath.atan2(from.x() * to.y() - from.y() * to.x(), from.x() * to.x() + from.y() * to.y());
   }
 
   @Override
@@ -0,0 +1,50 @@
+/**************************************************************************************
+ * dandelion_tree
+ * Copyright (c) 2014-2017 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.dandelion.geom;
+
+/**
+ * Internal use. A mutable {@link remixlab.dandelion.geom.Quat} variant backed by plain
+ * {@code x, y, z, w} fields (instead of a {@code quat[]} array), used as accumulator by
+ * {@link remixlab.dandelion.geom.Frame#orientation()}. See
+ * {@link remixlab.dandelion.geom.ScalarVec}.
+ */
+final class ScalarQuat {
+  float x, y, z, w;
+
+  ScalarQuat(Quat q) {
+    x = q.quat[0];
+    y = q.quat[1];
+    z = q.quat[2];
+    w = q.quat[3];
+  }
+
+  /**
+   * Same as {@code set(Quat.multiply(q, this))}, but without normalizing.
+   */
+  void preMultiply(Quat q) {
+    float qx = q.quat[0], qy = q.quat[1], qz = q.quat[2], qw = q.quat[3];
+    float rw = qw * w - qx * x - qy * y - qz * z;
+    float rx = qw * x + w * qx + qy * z - qz * y;
+    float ry = qw * y + w * qy - qx * z + qz * x;
+    float rz = qw * z + w * qz + qx * y - qy * x;
+    x = rx;
+    y = ry;
+    z = rz;
+    w = rw;
+  }
+
+  /**
+   * Returns the (normalized) Quat.
+   */
+  Quat get() {
+    return new Quat(x, y, z, w);
+  }
+}
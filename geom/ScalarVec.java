@@ -0,0 +1,124 @@
+/**************************************************************************************
+ * dandelion_tree
+ * Copyright (c) 2014-2017 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.dandelion.geom;
+
+/**
+ * Internal use. A mutable {@link remixlab.dandelion.geom.Vec} variant backed by plain
+ * {@code x, y, z} fields (instead of a {@code vec[]} array), used as accumulator by the
+ * {@link remixlab.dandelion.geom.Frame} coordinate conversions.
+ * <p>
+ * Since instances never escape the method that creates them, the JIT may replace them by
+ * their fields altogether (scalar replacement), so that walking a frame hierarchy only
+ * allocates the returned {@code Vec}.
+ */
+final class ScalarVec {
+  float x, y, z;
+
+  ScalarVec(Vec v) {
+    x = v.vec[0];
+    y = v.vec[1];
+    z = v.vec[2];
+  }
+
+  void multiply(float s) {
+    x *= s;
+    y *= s;
+    z *= s;
+  }
+
+  void divide(float s) {
+    x /= s;
+    y /= s;
+    z /= s;
+  }
+
+  void add(Vec v) {
+    x += v.vec[0];
+    y += v.vec[1];
+    z += v.vec[2];
+  }
+
+  void subtract(Vec v) {
+    x -= v.vec[0];
+    y -= v.vec[1];
+    z -= v.vec[2];
+  }
+
+  /**
+   * Same as {@code set(r.rotate(this))}.
+   */
+  void rotate(Rotation r) {
+    if (r instanceof Quat) {
+      float[] q = ((Quat) r).quat;
+      rotate(q[0], q[1], q[2], q[3]);
+    } else
+      rotate(r.angle());
+  }
+
+  /**
+   * Same as {@code set(r.inverseRotate(this))}.
+   */
+  void inverseRotate(Rotation r) {
+    if (r instanceof Quat) {
+      float[] q = ((Quat) r).quat;
+      float sqNorm = q[0] * q[0] + q[1] * q[1] + q[2] * q[2] + q[3] * q[3];
+      rotate(-q[0] / sqNorm, -q[1] / sqNorm, -q[2] / sqNorm, q[3] / sqNorm);
+    } else
+      rotate(-r.angle());
+  }
+
+  /**
+   * Same as {@link remixlab.dandelion.geom.Quat#rotate(Vec)}.
+   */
+  void rotate(float qx, float qy, float qz, float qw) {
+    float q00 = 2.0f * qx * qx;
+    float q11 = 2.0f * qy * qy;
+    float q22 = 2.0f * qz * qz;
+    float q01 = 2.0f * qx * qy;
+    float q02 = 2.0f * qx * qz;
+    float q03 = 2.0f * qx * qw;
+    float q12 = 2.0f * qy * qz;
+    float q13 = 2.0f * qy * qw;
+    float q23 = 2.0f * qz * qw;
+    float rx = (1.0f - q11 - q22) * x + (q01 - q23) * y + (q02 + q13) * z;
+    float ry = (q01 + q23) * x + (1.0f - q22 - q00) * y + (q12 - q03) * z;
+    float rz = (q02 - q13) * x + (q12 + q03) * y + (1.0f - q11 - q00) * z;
+    x = rx;
+    y = ry;
+    z = rz;
+  }
+
+  /**
+   * Same as {@link remixlab.dandelion.geom.Rot#rotate(Vec)}.
+   */
+  void rotate(float angle) {
+    float cosB = FastMath.cos(angle);
+    float sinB = FastMath.sin(angle);
+    float rx = x * cosB - y * sinB;
+    y = x * sinB + y * cosB;
+    x = rx;
+    z = 0;
+  }
+
+  Vec get() {
+    return new Vec(x, y, z);
+  }
+
+  /**
+   * Stores the vector into {@code target} (if null, a new vector will be created).
+   */
+  Vec get(Vec target) {
+    if (target == null)
+      return get();
+    target.set(x, y, z);
+    return target;
+  }
+}
@@ -0,0 +1,161 @@
+/**************************************************************************************
+ * dandelion_tree
+ * Copyright (c) 2014-2017 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.dandelion.geom;
+
+/**
+ * Per-thread pools of reusable {@link remixlab.dandelion.geom.Vec},
+ * {@link remixlab.dandelion.geom.Quat} and {@link remixlab.dandelion.geom.Mat} objects,
+ * used by the library internals for their short-lived temporaries, so that steady-state
+ * interaction and animation produce (almost) no garbage.
+ * <p>
+ * When the arena {@link #isEnabled()}, {@link #vec()}, {@link #quat()} and
+ * {@link #mat()} hand out the next free object of the calling thread pools, which are
+ * recycled all at once by {@link #reset()}. The scene calls it at the end of each frame
+ * (see {@link remixlab.dandelion.core.AbstractScene#postDraw()}) and worker threads at
+ * the end of each task. Once a pool runs out of its {@link #CAPACITY} objects new ones
+ * are simply allocated, so a missing reset (e.g., interaction handled out of the drawing
+ * thread) only turns the arena into plain allocation. When the arena is disabled
+ * (default) every call allocates a new object.
+ * <p>
+ * Note that the values returned by the public API (e.g., {@link Frame#position()} or the
+ * results of the {@link remixlab.dandelion.constraint.Constraint} filters) are still
+ * freshly allocated, as are the ancestor arrays walked by {@link Frame#coordinatesOf(Vec)}
+ * and {@link Frame#transformOf(Vec)}, hence the "almost".
+ * <p>
+ * <b>Attention:</b> an object taken from the arena should never outlive the method that
+ * took it, i.e., it should neither be returned nor stored, since it may be handed out
+ * again after the next {@link #reset()}. Objects are returned as they were left by their
+ * previous user, except the ones returned by the initializing methods.
+ */
+public final class ScratchArena {
+  /**
+   * Number of objects of each type kept by each thread arena.
+   */
+  public static final int CAPACITY = 256;
+
+  private static volatile boolean enabled;
+
+  private static final ThreadLocal<ScratchArena> arena = new ThreadLocal<ScratchArena>() {
+    @Override
+    protected ScratchArena initialValue() {
+      return new ScratchArena();
+    }
+  };
+
+  private final Vec[] vecs = new Vec[CAPACITY];
+  private final Quat[] quats = new Quat[CAPACITY];
+  private final Mat[] mats = new Mat[CAPACITY];
+  private int vecCount, quatCount, matCount;
+
+  private ScratchArena() {
+  }
+
+  /**
+   * Returns {@code true} if the arena is used and {@code false} (default) otherwise.
+   */
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Enables or disables the arena. The mode is global (it's shared by all the scenes) and
+   * is usually set with {@link remixlab.dandelion.core.AbstractScene#enableScratchArena()}.
+   */
+  public static void setEnabled(boolean enable) {
+    enabled = enable;
+  }
+
+  /**
+   * Recycles all the objects taken from the arena of the calling thread.
+   */
+  public static void reset() {
+    if (!enabled)
+      return;
+    ScratchArena a = arena.get();
+    a.vecCount = a.quatCount = a.matCount = 0;
+  }
+
+  /**
+   * Returns a temporary vector (with arbitrary coordinates).
+   */
+  public static Vec vec() {
+    if (!enabled)
+      return new Vec();
+    ScratchArena a = arena.get();
+    if (a.vecCount == CAPACITY)
+      return new Vec();
+    Vec v = a.vecs[a.vecCount];
+    if (v == null)
+      v = a.vecs[a.vecCount] = new Vec();
+    a.vecCount++;
+    return v;
+  }
+
+  /**
+   * Returns a temporary vector set to {@code (x,y,z)}.
+   */
+  public static Vec vec(float x, float y, float z) {
+    Vec v = vec();
+    v.set(x, y, z);
+    return v;
+  }
+
+  /**
+   * Returns a temporary vector set to {@code src}.
+   */
+  public static Vec vec(Vec src) {
+    Vec v = vec();
+    v.set(src);
+    return v;
+  }
+
+  /**
+   * Returns a temporary quaternion (with arbitrary coordinates).
+   */
+  public static Quat quat() {
+    if (!enabled)
+      return new Quat();
+    ScratchArena a = arena.get();
+    if (a.quatCount == CAPACITY)
+      return new Quat();
+    Quat q = a.quats[a.quatCount];
+    if (q == null)
+      q = a.quats[a.quatCount] = new Quat();
+    a.quatCount++;
+    return q;
+  }
+
+  /**
+   * Returns a temporary quaternion set to the rotation of {@code angle} radians around
+   * {@code axis}.
+   */
+  public static Quat quat(Vec axis, float angle) {
+    Quat q = quat();
+    q.fromAxisAngle(axis, angle);
+    return q;
+  }
+
+  /**
+   * Returns a temporary matrix (with arbitrary entries).
+   */
+  public static Mat mat() {
+    if (!enabled)
+      return new Mat();
+    ScratchArena a = arena.get();
+    if (a.matCount == CAPACITY)
+      return new Mat();
+    Mat m = a.mats[a.matCount];
+    if (m == null)
+      m = a.mats[a.matCount] = new Mat();
+    a.matCount++;
+    return m;
+  }
+}
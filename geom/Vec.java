@@ -147,12 +147,20 @@ public class Vec implements Linkable {
    * need to be normalized, but must be non null) that passes through the origin.
    */
   public static Vec projectVectorOnAxis(Vec src, Vec direction) {
+    return projectVectorOnAxis(src, direction, null);
+  }
+
+  /**
+   * Same as {@link #projectVectorOnAxis(Vec, Vec)}, but stores the result into
+   * {@code target} (if null, a new vector will be created), which may be {@code src}.
+   */
+  public static Vec projectVectorOnAxis(Vec src, Vec direction, Vec target) {
     float directionSquaredNorm = squaredNorm(direction);
     if (Util.zero(directionSquaredNorm))
       throw new RuntimeException("Direction squared norm is nearly 0");
 
     float modulation = src.dot(direction) / directionSquaredNorm;
-    return Vec.multiply(direction, modulation);
+    return Vec.multiply(direction, modulation, target);
   }
 
   /**
@@ -169,12 +177,24 @@ public class Vec implements Linkable {
    * be normalized, but must be non null) that passes through the origin.
    */
   public static Vec projectVectorOnPlane(Vec src, Vec normal) {
+    return projectVectorOnPlane(src, normal, null);
+  }
+
+  /**
+   * Same as {@link #projectVectorOnPlane(Vec, Vec)}, but stores the result into
+   * {@code target} (if null, a new vector will be created), which may be {@code src}.
+   */
+  public static Vec projectVectorOnPlane(Vec src, Vec normal, Vec target) {
     float normalSquaredNorm = squaredNorm(normal);
     if (Util.zero(normalSquaredNorm))
       throw new RuntimeException("Normal squared norm is nearly 0");
 
     float modulation = src.dot(normal) / normalSquaredNorm;
-    return Vec.subtract(src, Vec.multiply(normal, modulation));
+    if (target == null)
+      target = new Vec();
+    target.set(src.vec[0] - normal.vec[0] * modulation, src.vec[1] - normal.vec[1] * modulation,
+        src.vec[2] - normal.vec[2] * modulation);
+    return target;
   }
 
   /**